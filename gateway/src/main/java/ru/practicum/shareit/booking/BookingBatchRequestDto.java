@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingBatchRequestDto {
+    private List<Long> bookingIds;
+
+    private Boolean approved;
+}
@@ -1,12 +1,12 @@
 package ru.practicum.shareit.booking;
 
-import jakarta.validation.Valid;
-import jakarta.validation.constraints.Positive;
-import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import static ru.practicum.shareit.validation.ParamChecks.requirePositive;
+import static ru.practicum.shareit.validation.ParamChecks.requirePositiveOrZero;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
@@ -15,10 +15,18 @@ public class BookingController {
 
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @Valid @RequestBody BookingRequestDto dto) {
+                                         @RequestBody BookingRequestDto dto) {
+        BookingValidator.validate(dto);
         return client.create(userId, dto);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestBody BookingBatchRequestDto dto) {
+        BookingValidator.validate(dto);
+        return client.approveBatch(userId, dto);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable Long bookingId,
@@ -35,8 +43,10 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<Object> findByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                @RequestParam(defaultValue = "ALL") String state,
-                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                               @Positive @RequestParam(defaultValue = "10") int size) {
+                                               @RequestParam(defaultValue = "0") int from,
+                                               @RequestParam(defaultValue = "10") int size) {
+        requirePositiveOrZero("from", from);
+        requirePositive("size", size);
         return client.getUserBookings(userId, state, from, size);
     }
 
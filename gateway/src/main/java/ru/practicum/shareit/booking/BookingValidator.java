@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hand-written checks of booking requests: plain getter calls in place of the reflective Bean Validation walk.
+ */
+final class BookingValidator {
+    static final int MAX_BATCH_SIZE = 100;
+
+    private BookingValidator() {
+    }
+
+    static void validate(BookingRequestDto dto) {
+        if (dto.getItemId() == null) {
+            throw new ValidationException("ID вещи не может быть пустым");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (dto.getStart() == null) {
+            throw new ValidationException("Дата начала бронирования должна быть указана");
+        }
+        if (!dto.getStart().isAfter(now)) {
+            throw new ValidationException("Дата и время начала бронирования не может быть в прошлом");
+        }
+        if (dto.getEnd() == null) {
+            throw new ValidationException("Дата конца бронирования должна быть указана");
+        }
+        if (!dto.getEnd().isAfter(now)) {
+            throw new ValidationException("Дата и время конца бронирования не может быть в прошлом");
+        }
+    }
+
+    static void validate(BookingBatchRequestDto dto) {
+        List<Long> bookingIds = dto.getBookingIds();
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new ValidationException("Список бронирований не может быть пустым");
+        }
+        if (bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Слишком много бронирований в одном запросе");
+        }
+        for (Long bookingId : bookingIds) {
+            if (bookingId == null || bookingId <= 0) {
+                throw new ValidationException("ID бронирования должен быть положительным");
+            }
+        }
+        if (dto.getApproved() == null) {
+            throw new ValidationException("Решение по бронированиям должно быть указано");
+        }
+    }
+}
@@ -1,22 +1,51 @@
 package ru.practicum.shareit.client;
 
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+import org.slf4j.MDC;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.limit.EndpointGroup;
+import ru.practicum.shareit.logging.MdcFilter;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final List<String> FRAMING_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, "Keep-Alive");
+
     protected final RestTemplate rest;
+    @Nullable
+    private final ServerProtocol protocol;
+    @Nullable
+    private final RequestCoalescer coalescer;
+    @Nullable
+    private final ServerCallGuard guard;
 
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
+        this.protocol = null;
+        this.coalescer = null;
+        this.guard = null;
+    }
+
+    public BaseClient(RestTemplate rest, ServerProtocol protocol, RequestCoalescer coalescer, ServerCallGuard guard) {
+        this.rest = rest;
+        this.protocol = protocol;
+        this.coalescer = coalescer;
+        this.guard = guard;
+        rest.getMessageConverters().removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+        rest.getMessageConverters().add(protocol.converter());
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -28,7 +57,38 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        if (coalescer == null) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        }
+        URI uri = expand(path, parameters);
+        return coalescer.execute(uri, userId,
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+    }
+
+    /**
+     * Relays a server response body as is, flushing after every read so nothing is held in buffers.
+     * Used for long or unbounded responses, which bypass coalescing and the call guard.
+     */
+    protected StreamingResponseBody stream(String path, @Nullable Long userId, MediaType accept) {
+        String requestId = MDC.get(MdcFilter.REQUEST_ID_KEY);
+        return out -> rest.execute(path, HttpMethod.GET, request -> {
+            request.getHeaders().setAccept(List.of(accept));
+            if (userId != null) {
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            }
+            if (requestId != null) {
+                request.getHeaders().set(MdcFilter.REQUEST_ID_HEADER, requestId);
+            }
+        }, response -> {
+            InputStream in = response.getBody();
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+            return null;
+        });
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -43,6 +103,10 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
+    protected ResponseEntity<Object> post(String path, long userId, MediaType contentType, byte[] body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body, contentType);
+    }
+
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
@@ -80,34 +144,63 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, userId, parameters, body, wireType());
+    }
 
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, MediaType contentType) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId, contentType));
+        URI uri = expand(path, parameters);
+        if (guard == null) {
+            return exchange(uri, method, requestEntity);
+        }
+        return guard.execute(EndpointGroup.of(method.name(), uri.getPath()), () -> exchange(uri, method, requestEntity));
+    }
+
+    private <T> ResponseEntity<Object> exchange(URI uri, HttpMethod method, HttpEntity<T> requestEntity) {
         ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, Object.class);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            byte[] errorBody = e.getResponseBodyAsByteArray();
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(protocol != null ? protocol.readBody(e.getResponseHeaders(), errorBody) : errorBody);
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, MediaType contentType) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(contentType);
+        headers.setAccept(List.of(wireType(), MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        String requestId = MDC.get(MdcFilter.REQUEST_ID_KEY);
+        if (requestId != null) {
+            headers.set(MdcFilter.REQUEST_ID_HEADER, requestId);
+        }
         return headers;
     }
 
+    private MediaType wireType() {
+        return protocol != null ? protocol.mediaType() : MediaType.APPLICATION_JSON;
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            // the body is re-serialized (and possibly re-compressed) by the gateway in the format its client
+            // negotiated, so the framing headers of the server response no longer apply;
+            // headers like X-Next-Cursor are kept
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            FRAMING_HEADERS.forEach(headers::remove);
+            return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
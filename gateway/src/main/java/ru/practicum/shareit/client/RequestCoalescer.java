@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for idempotent requests: while a request for the same URI and user is in flight,
+ * identical requests wait for its response instead of going to the server, and share its error if it fails.
+ * <p>
+ * A waiter never makes its own call: waiters of one key arrive together and would time out together, turning
+ * a slow server into exactly the burst this class exists to absorb. The leader's call is bounded by the call
+ * guard timeout, so {@code max-wait} is only a safety net set above it; a waiter that reaches it gets 503.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+    private final ConcurrentMap<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long maxWaitMs;
+    private final Counter leaders;
+    private final Counter joined;
+    private final Counter timedOut;
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.enabled:true}") boolean enabled,
+                            @Value("${shareit-server.coalescing.max-wait:5s}") Duration maxWait,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxWaitMs = maxWait.toMillis();
+        this.leaders = counter(meterRegistry, "leader");
+        this.joined = counter(meterRegistry, "joined");
+        // waiters failed with 503 because the shared call outlived max-wait
+        this.timedOut = counter(meterRegistry, "timeout");
+        Gauge.builder("shareit.gateway.coalescing.in-flight", inFlight, ConcurrentMap::size)
+                .description("Запросы к серверу, к которым могут присоединиться одинаковые запросы")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<Object> execute(URI uri, @Nullable Long userId, Supplier<ResponseEntity<Object>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Key key = new Key(uri, userId);
+        CompletableFuture<ResponseEntity<Object>> own = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = inFlight.putIfAbsent(key, own);
+        if (leader == null) {
+            return lead(key, own, call);
+        }
+        try {
+            ResponseEntity<Object> response = leader.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            joined.increment();
+            return response;
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            log.warn("Не дождались общего запроса к серверу: uri={}, waitMs={}", uri, maxWaitMs);
+            throw new ServiceUnavailableException("Сервер не ответил вовремя, повторите позже");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание ответа сервера прервано", e);
+        }
+    }
+
+    private ResponseEntity<Object> lead(Key key, CompletableFuture<ResponseEntity<Object>> own,
+                                        Supplier<ResponseEntity<Object>> call) {
+        leaders.increment();
+        try {
+            ResponseEntity<Object> response = call.get();
+            own.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.gateway.coalescing")
+                .description("Запросы чтения по способу получения ответа")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(URI uri, @Nullable Long userId) {
+    }
+}
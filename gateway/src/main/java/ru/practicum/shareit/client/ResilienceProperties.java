@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.practicum.shareit.limit.EndpointGroup;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = ResilienceProperties.PREFIX)
+public class ResilienceProperties {
+    public static final String PREFIX = "shareit-server.resilience";
+
+    /**
+     * Bulkhead and timeout per endpoint group; groups without settings use {@link #defaults}.
+     */
+    private Map<EndpointGroup, Bulkhead> groups = new EnumMap<>(EndpointGroup.class);
+    private Bulkhead defaults = new Bulkhead();
+    private Breaker breaker = new Breaker();
+
+    public Bulkhead forGroup(EndpointGroup group) {
+        return groups.getOrDefault(group, defaults);
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrent = 50;
+        private Duration maxWait = Duration.ofMillis(100);
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Breaker {
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenProbes = 3;
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.GatewayTimeoutException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.limit.EndpointGroup;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Protects the gateway from a slow or failing server. Every endpoint group has its own bulkhead
+ * (a bounded number of concurrent calls), call timeout and circuit breaker, so a stalled search cannot
+ * take the threads that booking writes need. Rejected calls and timed out reads fail fast with 503.
+ * <p>
+ * A timed out write is not cancelled: the server may already have applied it, and interrupting the call would
+ * only hide the result. The client gets 504 meaning "outcome unknown", the call finishes in the background and
+ * keeps its bulkhead permit until then. Such calls are counted as {@code outcome-unknown}, not as failures.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ServerCallGuard implements DisposableBean {
+    private final ResilienceProperties properties;
+    private final Map<EndpointGroup, Semaphore> bulkheads = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, CircuitBreaker> breakers = new EnumMap<>(EndpointGroup.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+
+    public ServerCallGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            Semaphore bulkhead = new Semaphore(properties.forGroup(group).getMaxConcurrent());
+            CircuitBreaker breaker = new CircuitBreaker(properties.getBreaker());
+            bulkheads.put(group, bulkhead);
+            breakers.put(group, breaker);
+            Gauge.builder("shareit.gateway.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.breaker.state", breaker, b -> b.getState().ordinal())
+                    .description("0 - closed, 1 - open, 2 - half-open")
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public ResponseEntity<Object> execute(EndpointGroup group, Supplier<ResponseEntity<Object>> call) {
+        CircuitBreaker breaker = breakers.get(group);
+        if (!breaker.tryAcquire()) {
+            count(group, "rejected");
+            throw new ServiceUnavailableException("Сервер временно недоступен, повторите позже");
+        }
+        ResilienceProperties.Bulkhead settings = properties.forGroup(group);
+        Semaphore bulkhead = bulkheads.get(group);
+        if (!acquire(bulkhead, settings)) {
+            breaker.onIgnored();
+            count(group, "bulkhead-full");
+            throw new ServiceUnavailableException("Слишком много одновременных запросов, повторите позже");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        };
+        boolean releaseOnReturn = true;
+        Future<ResponseEntity<Object>> future = executor.submit(() -> {
+            try {
+                return call.get();
+            } finally {
+                release.run();
+            }
+        });
+        try {
+            ResponseEntity<Object> response = future.get(settings.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (response.getStatusCode().is5xxServerError()) {
+                breaker.onFailure();
+                count(group, "failure");
+            } else {
+                breaker.onSuccess();
+                count(group, "success");
+            }
+            return response;
+        } catch (TimeoutException e) {
+            if (group.isWrite()) {
+                releaseOnReturn = false;
+                breaker.onIgnored();
+                count(group, "outcome-unknown");
+                log.warn("Сервер не подтвердил изменение вовремя, исход неизвестен: group={}, timeoutMs={}",
+                        group, settings.getTimeout().toMillis());
+                throw new GatewayTimeoutException("Сервер не ответил вовремя, изменение могло быть применено");
+            }
+            future.cancel(true);
+            breaker.onFailure();
+            count(group, "timeout");
+            log.warn("Сервер не ответил вовремя: group={}, timeoutMs={}", group, settings.getTimeout().toMillis());
+            throw new ServiceUnavailableException("Сервер не ответил вовремя, повторите позже");
+        } catch (ExecutionException e) {
+            breaker.onFailure();
+            count(group, "failure");
+            log.warn("Ошибка обращения к серверу: group={}, error={}", group, e.getCause().toString());
+            throw new ServiceUnavailableException("Сервер временно недоступен, повторите позже");
+        } catch (InterruptedException e) {
+            if (group.isWrite()) {
+                releaseOnReturn = false;
+            } else {
+                future.cancel(true);
+            }
+            breaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Ожидание ответа сервера прервано");
+        } finally {
+            if (releaseOnReturn) {
+                // a cancelled read may not have started, so its task cannot be relied on to release the permit
+                release.run();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static boolean acquire(Semaphore bulkhead, ResilienceProperties.Bulkhead settings) {
+        try {
+            return bulkhead.tryAcquire(settings.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void count(EndpointGroup group, String outcome) {
+        meterRegistry.counter("shareit.gateway.server-calls", "group", group.name(), "outcome", outcome)
+                .increment();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Encoding of the gateway to server hop. With the binary protocol enabled requests and responses are
+ * Smile encoded; the gateway still answers its own clients in JSON.
+ */
+@Component
+public class ServerProtocol {
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final boolean binary;
+    private final ObjectMapper smileMapper;
+
+    public ServerProtocol(@Value("${shareit-server.protocol.binary:true}") boolean binary,
+                          Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.binary = binary;
+        this.smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+    }
+
+    public MediaType mediaType() {
+        return binary ? SMILE : MediaType.APPLICATION_JSON;
+    }
+
+    public MappingJackson2SmileHttpMessageConverter converter() {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper);
+    }
+
+    /**
+     * Decodes a Smile error body so it can be relayed as JSON; other bodies are returned as is.
+     */
+    public Object readBody(@Nullable HttpHeaders headers, byte[] body) {
+        MediaType contentType = headers != null ? headers.getContentType() : null;
+        if (body.length == 0 || contentType == null || !SMILE.isCompatibleWith(contentType)) {
+            return body;
+        }
+        try {
+            return smileMapper.readValue(body, Object.class);
+        } catch (IOException e) {
+            return body;
+        }
+    }
+}
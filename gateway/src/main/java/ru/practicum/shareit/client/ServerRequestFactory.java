@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Request factory for all clients of the shareit server, sharing one HTTP client and its connections.
+ * <ul>
+ *     <li>{@code HTTP_1_1} - Apache HttpClient with a connection pool, one request per connection at a time.
+ *     The pool must hold at least as many connections as the bulkheads admit calls, otherwise admitted calls
+ *     queue for a connection inside their timeout;</li>
+ *     <li>{@code HTTP_2} - JDK HttpClient upgrading to h2c, concurrent requests are multiplexed
+ *     over a few connections.</li>
+ * </ul>
+ * With compression enabled responses are requested gzipped and decompressed while they are read.
+ */
+@Component
+public class ServerRequestFactory implements DisposableBean {
+    private final ClientHttpRequestFactory requestFactory;
+    private final CloseableHttpClient apacheClient;
+    private final HttpClient jdkClient;
+    private final ExecutorService jdkExecutor;
+
+    public ServerRequestFactory(@Value("${shareit-server.compression.enabled:true}") boolean compressionEnabled,
+                                @Value("${shareit-server.http-version:HTTP_1_1}") HttpClient.Version version,
+                                @Value("${shareit-server.connect-timeout:5s}") Duration connectTimeout,
+                                @Value("${shareit-server.pool.max-total:250}") int maxTotal,
+                                @Value("${shareit-server.pool.max-per-route:250}") int maxPerRoute) {
+        if (version == HttpClient.Version.HTTP_2) {
+            this.apacheClient = null;
+            this.jdkExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            this.jdkClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .executor(jdkExecutor)
+                    .build();
+            ClientHttpRequestFactory jdkFactory = new JdkClientHttpRequestFactory(jdkClient);
+            this.requestFactory = compressionEnabled
+                    ? new InterceptingClientHttpRequestFactory(jdkFactory, List.of(new GzipDecompressingInterceptor()))
+                    : jdkFactory;
+        } else {
+            HttpClientBuilder builder = HttpClients.custom()
+                    .useSystemProperties()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .useSystemProperties()
+                            .setMaxConnTotal(maxTotal)
+                            .setMaxConnPerRoute(maxPerRoute)
+                            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                    .setConnectTimeout(Timeout.of(connectTimeout))
+                                    .build())
+                            .build());
+            if (!compressionEnabled) {
+                builder.disableContentCompression();
+            }
+            this.jdkClient = null;
+            this.jdkExecutor = null;
+            this.apacheClient = builder.build();
+            this.requestFactory = new HttpComponentsClientHttpRequestFactory(apacheClient);
+        }
+    }
+
+    public ClientHttpRequestFactory create() {
+        return requestFactory;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (apacheClient != null) {
+            apacheClient.close();
+        }
+        if (jdkClient != null) {
+            jdkClient.close();
+            jdkExecutor.shutdown();
+        }
+    }
+}
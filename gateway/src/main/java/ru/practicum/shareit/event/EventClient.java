@@ -0,0 +1,31 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerRequestFactory;
+
+@Service
+public class EventClient extends BaseClient {
+    private static final String API_PREFIX = "/events";
+
+    @Autowired
+    public EventClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                    ServerRequestFactory requestFactory) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(requestFactory::create)
+                        .build()
+        );
+    }
+
+    public StreamingResponseBody subscribe(Long userId) {
+        return stream("", userId, MediaType.TEXT_EVENT_STREAM);
+    }
+}
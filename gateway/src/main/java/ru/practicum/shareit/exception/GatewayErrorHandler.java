@@ -1,9 +1,7 @@
 package ru.practicum.shareit.exception;
 
-import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -11,10 +9,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @Slf4j
 @RestControllerAdvice
 public class GatewayErrorHandler {
-    @ExceptionHandler({MethodArgumentNotValidException.class, ConstraintViolationException.class,
-            ValidationException.class})
+    @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public GatewayErrorResponse handleValidation(final Exception e) {
+    public GatewayErrorResponse handleValidation(final ValidationException e) {
         log.debug("Получен статус 400 Bad Request {}", e.getMessage(), e);
         return new GatewayErrorResponse(e.getMessage());
     }
@@ -33,6 +30,20 @@ public class GatewayErrorHandler {
         return new GatewayErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public GatewayErrorResponse handleServiceUnavailable(final ServiceUnavailableException e) {
+        log.debug("Получен статус 503 Service Unavailable {}", e.getMessage());
+        return new GatewayErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public GatewayErrorResponse handleGatewayTimeout(final GatewayTimeoutException e) {
+        log.debug("Получен статус 504 Gateway Timeout {}", e.getMessage());
+        return new GatewayErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public GatewayErrorResponse handleInternalServerError(final Throwable e) {
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JSON array or NDJSON stream of items one element at a time, validates each element and re-encodes
+ * the accepted ones as NDJSON for the server. Only the encoded bytes are kept, never the parsed objects,
+ * and the whole upload is rejected before anything is forwarded if a single element is invalid.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBulkValidator {
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.items.bulk.max-size:10000}")
+    private int maxSize;
+
+    public byte[] toValidatedNdjson(InputStream body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int index = 0;
+        try (MappingIterator<ItemDto> items = objectMapper.readerFor(ItemDto.class).readValues(body);
+             SequenceWriter writer = objectMapper.writerFor(ItemDto.class)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            while (items.hasNext()) {
+                ItemDto item = items.next();
+                index++;
+                if (index > maxSize) {
+                    throw new ValidationException("Слишком много вещей в одном запросе: максимум " + maxSize);
+                }
+                String violation = ItemValidator.findViolation(item);
+                if (violation != null) {
+                    throw new ValidationException("Вещь №" + index + ": " + violation);
+                }
+                writer.write(item);
+            }
+        } catch (RuntimeJsonMappingException | JsonProcessingException e) {
+            throw new ValidationException("Некорректный формат вещи №" + (index + 1));
+        }
+        if (index == 0) {
+            throw new ValidationException("Список вещей не может быть пустым");
+        }
+        return out.toByteArray();
+    }
+}
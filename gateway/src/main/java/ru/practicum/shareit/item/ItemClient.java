@@ -3,12 +3,17 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerProtocol;
+import ru.practicum.shareit.client.ServerRequestFactory;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -16,12 +21,17 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                    ServerRequestFactory requestFactory, ServerProtocol protocol,
+                    RequestCoalescer coalescer, ServerCallGuard guard) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(requestFactory::create)
+                        .build(),
+                protocol,
+                coalescer,
+                guard
         );
     }
 
@@ -29,6 +39,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> createItems(Long userId, byte[] ndjson) {
+        return post("/bulk", userId, MediaType.APPLICATION_NDJSON, ndjson);
+    }
+
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -56,4 +70,18 @@ public class ItemClient extends BaseClient {
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> getComments(Long userId, Long itemId, String cursor, int size) {
+        if (cursor == null) {
+            Map<String, Object> params = Map.of("size", size);
+            return get("/" + itemId + "/comments?size={size}", userId, params);
+        }
+        Map<String, Object> params = Map.of("size", size, "cursor", cursor);
+        return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId, params);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> params = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, params);
+    }
 }
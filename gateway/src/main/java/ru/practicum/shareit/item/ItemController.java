@@ -1,24 +1,41 @@
 package ru.practicum.shareit.item;
 
-import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static ru.practicum.shareit.validation.ParamChecks.requireAtMost;
+import static ru.practicum.shareit.validation.ParamChecks.requirePositive;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/items")
 public class ItemController {
     private final ItemClient client;
+    private final ItemBulkValidator bulkValidator;
 
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @Valid @RequestBody ItemDto itemDto) {
+                                             @RequestBody ItemDto itemDto) {
+        ItemValidator.validate(itemDto);
         return client.createItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Object> createItems(@RequestHeader("X-Sharer-User-Id") Long userId, InputStream body)
+            throws IOException {
+        return client.createItems(userId, bulkValidator.toValidatedNdjson(body));
+    }
+
     @PatchMapping
     public ResponseEntity<Object> updateItemFromBody(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestBody ItemDto itemDto) {
@@ -60,7 +77,31 @@ public class ItemController {
 
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
-                                             @Valid @RequestBody CommentDto commentDto) {
+                                             @RequestBody CommentDto commentDto) {
+        ItemValidator.validate(commentDto);
         return client.addComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable Long itemId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size) {
+        requirePositive("size", size);
+        requireAtMost("size", size, 100);
+        return client.getComments(userId, itemId, cursor, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new ValidationException("Конец периода должен быть позже начала");
+        }
+        return client.getAvailability(userId, itemId, from, to);
+    }
 }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import static ru.practicum.shareit.validation.ParamChecks.isBlank;
+
+/**
+ * Hand-written checks of new items and comments, shared by single and bulk creation.
+ */
+final class ItemValidator {
+    private ItemValidator() {
+    }
+
+    /**
+     * @return the first violation or {@code null} for a valid item
+     */
+    static String findViolation(ItemDto dto) {
+        if (isBlank(dto.getName())) {
+            return "Название вещи не может быть пустым";
+        }
+        if (isBlank(dto.getDescription())) {
+            return "Описание вещи не может быть пустым";
+        }
+        if (dto.getAvailable() == null) {
+            return "Доступность вещи должна быть указана";
+        }
+        return null;
+    }
+
+    static void validate(ItemDto dto) {
+        String violation = findViolation(dto);
+        if (violation != null) {
+            throw new ValidationException(violation);
+        }
+    }
+
+    static void validate(CommentDto dto) {
+        if (isBlank(dto.getText())) {
+            throw new ValidationException("Комментарий не может быть пустым");
+        }
+    }
+}
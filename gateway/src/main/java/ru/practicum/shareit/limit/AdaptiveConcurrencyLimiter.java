@@ -0,0 +1,63 @@
+package ru.practicum.shareit.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limit: the limit follows the ratio of the long-term average latency to the latency
+ * of the latest request, so it shrinks as soon as the server starts queueing and grows back by about
+ * sqrt(limit) while latency stays flat.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LimitProperties.Concurrency settings;
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(LimitProperties.Concurrency settings) {
+        this.settings = settings;
+        this.limit = settings.getInitialLimit();
+        this.estimatedLimit = settings.getInitialLimit();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, current);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtRelease) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        longRtt = longRtt == 0 ? rttNanos : longRtt + (rttNanos - longRtt) / settings.getLongWindow();
+        // a lightly used limit says nothing about what the server could take
+        if (inFlightAtRelease < estimatedLimit / 2 && rttNanos <= longRtt) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, settings.getRttTolerance() * longRtt / rttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - settings.getSmoothing()) + newLimit * settings.getSmoothing();
+        estimatedLimit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.limit;
+
+/**
+ * Groups of gateway endpoints that get their own request budgets.
+ */
+public enum EndpointGroup {
+    SEARCH,
+    BOOKING_WRITE,
+    WRITE,
+    READ,
+    /**
+     * The full user export: one long stream per call, so it has its own small budget and concurrency cap.
+     */
+    EXPORT;
+
+    /**
+     * Calls of write groups change state on the server, so a call that timed out may still have been applied.
+     */
+    public boolean isWrite() {
+        return this == BOOKING_WRITE || this == WRITE;
+    }
+
+    public static EndpointGroup of(String method, String path) {
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (read) {
+            if (path.equals("/users/export")) {
+                return EXPORT;
+            }
+            return path.startsWith("/items/search") ? SEARCH : READ;
+        }
+        return path.startsWith("/bookings") ? BOOKING_WRITE : WRITE;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LimitProperties.class)
+public class LimitConfig {
+    @Bean
+    public TokenBucketLimiter tokenBucketLimiter(LimitProperties properties, MeterRegistry meterRegistry) {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(properties);
+        Gauge.builder("shareit.gateway.rate-limit.tracked-clients", limiter, TokenBucketLimiter::getTrackedClients)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(LimitProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties.getConcurrency());
+        Gauge.builder("shareit.gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = LimitProperties.PREFIX)
+public class LimitProperties {
+    public static final String PREFIX = "shareit.limits";
+
+    /**
+     * Per-client budgets; groups without a budget are not rate limited.
+     */
+    private Map<EndpointGroup, Budget> budgets = new EnumMap<>(EndpointGroup.class);
+    private int maxTrackedClients = 100_000;
+    /**
+     * How often clients with a full bucket are forgotten.
+     */
+    private Duration sweepInterval = Duration.ofSeconds(10);
+    private Concurrency concurrency = new Concurrency();
+    /**
+     * Exports running at once across all clients.
+     */
+    private int maxConcurrentExports = 1;
+
+    @Data
+    public static class Budget {
+        private double ratePerSecond = 10;
+        private int burst = 20;
+    }
+
+    @Data
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 100;
+        private int minLimit = 10;
+        private int maxLimit = 1000;
+        /**
+         * How much slower than the long-term average a request may be before the limit shrinks.
+         */
+        private double rttTolerance = 2.0;
+        private double smoothing = 0.2;
+        private int longWindow = 600;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.GatewayErrorResponse;
+import ru.practicum.shareit.logging.MdcFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests before they reach the server: 429 when the client exhausted its budget for the endpoint
+ * group, 503 when the gateway already has as many requests in flight as the adaptive limit allows.
+ * Exports stream for minutes, so instead of the adaptive limit they are capped by a fixed number of permits
+ * held until the stream completes.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    private final TokenBucketLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore exports;
+
+    public LoadSheddingFilter(TokenBucketLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                              LimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.exports = new Semaphore(properties.getMaxConcurrentExports());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // event streams stay open for minutes and would hold concurrency slots and skew the latency
+        String path = request.getRequestURI();
+        return path.startsWith("/actuator") || path.startsWith("/events");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request.getMethod(), request.getRequestURI());
+        String client = clientKey(request);
+        long waitNanos = rateLimiter.tryAcquire(group, client);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            log.debug("Превышен лимит запросов: client={}, group={}, retryAfterSec={}", client, group, retryAfter);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, group, "Слишком много запросов, повторите позже");
+            return;
+        }
+        if (group == EndpointGroup.EXPORT) {
+            filterExport(request, response, chain);
+            return;
+        }
+        if (!properties.getConcurrency().isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            log.debug("Запрос отклонён из-за перегрузки: group={}, limit={}", group, concurrencyLimiter.getLimit());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, group, "Сервис перегружен, повторите позже");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private void filterExport(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!exports.tryAcquire()) {
+            log.debug("Экспорт отклонён: уже выполняется {} экспорт(ов)", properties.getMaxConcurrentExports());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, EndpointGroup.EXPORT,
+                    "Экспорт уже выполняется, повторите позже");
+            return;
+        }
+        boolean streaming = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // the body is written after this filter returns; the permit is held until the stream completes
+                request.getAsyncContext().addListener(new ExportPermitListener());
+                streaming = true;
+            }
+        } finally {
+            if (!streaming) {
+                exports.release();
+            }
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String userId = request.getHeader(MdcFilter.USER_ID_HEADER);
+        return userId != null && !userId.isBlank() ? userId : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, EndpointGroup group, String message)
+            throws IOException {
+        meterRegistry.counter("shareit.gateway.shed", "status", String.valueOf(status.value()),
+                "group", group.name()).increment();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GatewayErrorResponse(message));
+    }
+
+    private class ExportPermitListener implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // also called after a timeout or an error
+            exports.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
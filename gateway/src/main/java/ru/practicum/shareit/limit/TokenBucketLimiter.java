@@ -0,0 +1,104 @@
+package ru.practicum.shareit.limit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: a client is one {@link AtomicLong} holding the theoretical
+ * arrival time of its next request, and a request is admitted by a single CAS moving it forward.
+ * <p>
+ * A client whose arrival time has passed has a full bucket and needs no state; such entries are dropped by a
+ * background sweep, so the request path never scans the table. While the table is full, clients it does not
+ * know share one overflow bucket per group: a flood of made-up client ids gets one client's budget in total
+ * instead of switching limiting off.
+ */
+public class TokenBucketLimiter implements AutoCloseable {
+    // not a valid user id or address, so no real client can land in the overflow bucket by name
+    private static final String OVERFLOW_CLIENT = "overflow:";
+
+    private final Map<EndpointGroup, Rate> rates = new EnumMap<>(EndpointGroup.class);
+    private final ConcurrentHashMap<Key, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final int maxTrackedClients;
+    private final ScheduledExecutorService sweeper;
+
+    public TokenBucketLimiter(LimitProperties properties) {
+        properties.getBudgets().forEach((group, budget) -> {
+            long interval = (long) (1_000_000_000L / budget.getRatePerSecond());
+            rates.put(group, new Rate(interval, interval * budget.getBurst()));
+        });
+        this.maxTrackedClients = properties.getMaxTrackedClients();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = properties.getSweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise nanoseconds until the client may retry
+     */
+    public long tryAcquire(EndpointGroup group, String client) {
+        return tryAcquire(group, client, System.nanoTime());
+    }
+
+    long tryAcquire(EndpointGroup group, String client, long now) {
+        Rate rate = rates.get(group);
+        if (rate == null) {
+            return 0;
+        }
+        Key key = new Key(group, client);
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            if (arrivals.mappingCount() >= maxTrackedClients) {
+                // fail closed: a client without its own bucket draws from the shared one until a sweep frees room
+                key = new Key(group, OVERFLOW_CLIENT);
+            }
+            arrival = arrivals.computeIfAbsent(key, ignored -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = arrival.get();
+            long next = (current - now > 0 ? current : now) + rate.interval();
+            long wait = next - now - rate.tolerance();
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of clients currently tracked.
+     */
+    public long getTrackedClients() {
+        return arrivals.mappingCount();
+    }
+
+    void sweep() {
+        sweep(System.nanoTime());
+    }
+
+    void sweep(long now) {
+        // a request racing with the removal loses at most its own token: the client comes back with a full bucket
+        arrivals.values().removeIf(arrival -> arrival.get() - now < 0);
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private record Rate(long interval, long tolerance) {
+    }
+
+    private record Key(EndpointGroup group, String client) {
+    }
+}
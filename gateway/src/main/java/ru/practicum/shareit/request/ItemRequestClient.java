@@ -4,10 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerProtocol;
+import ru.practicum.shareit.client.ServerRequestFactory;
 
 import java.util.Map;
 
@@ -16,12 +19,17 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                    ServerRequestFactory requestFactory, ServerProtocol protocol,
+                    RequestCoalescer coalescer, ServerCallGuard guard) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(requestFactory::create)
+                        .build(),
+                protocol,
+                coalescer,
+                guard
         );
     }
 
@@ -33,12 +41,19 @@ public class ItemRequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size, String cursor) {
+        if (cursor == null) {
+            Map<String, Object> params = Map.of(
+                    "from", from,
+                    "size", size
+            );
+            return get("/all?from={from}&size={size}", userId, params);
+        }
         Map<String, Object> params = Map.of(
-                "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor
         );
-        return get("/all?from={from}&size={size}", userId, params);
+        return get("/all?size={size}&cursor={cursor}", userId, params);
     }
 
     public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
@@ -1,13 +1,15 @@
 package ru.practicum.shareit.request;
 
-import jakarta.validation.constraints.Positive;
-import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
+import static ru.practicum.shareit.validation.ParamChecks.requireAtMost;
+import static ru.practicum.shareit.validation.ParamChecks.requirePositive;
+import static ru.practicum.shareit.validation.ParamChecks.requirePositiveOrZero;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/requests")
@@ -27,9 +29,13 @@ public class ItemRequestController {
 
     @GetMapping("/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                 @Positive @RequestParam(defaultValue = "10") int size) {
-        return client.getAllRequests(userId, from, size);
+                                                 @RequestParam(defaultValue = "0") int from,
+                                                 @RequestParam(defaultValue = "10") int size,
+                                                 @RequestParam(required = false) String cursor) {
+        requirePositiveOrZero("from", from);
+        requirePositive("size", size);
+        requireAtMost("size", size, 100);
+        return client.getAllRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
@@ -3,23 +3,35 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerProtocol;
+import ru.practicum.shareit.client.ServerRequestFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                    ServerRequestFactory requestFactory, ServerProtocol protocol,
+                    RequestCoalescer coalescer, ServerCallGuard guard) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(requestFactory::create)
+                        .build(),
+                protocol,
+                coalescer,
+                guard
         );
     }
 
@@ -35,8 +47,17 @@ public class UserClient extends BaseClient {
         return get("/" + userId, userId);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public ResponseEntity<Object> getUsers(Long afterId, int size) {
+        if (afterId == null) {
+            Map<String, Object> params = Map.of("size", size);
+            return get("?size={size}", null, params);
+        }
+        Map<String, Object> params = Map.of("size", size, "afterId", afterId);
+        return get("?size={size}&afterId={afterId}", null, params);
+    }
+
+    public StreamingResponseBody exportUsers(Long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON);
     }
 
     public ResponseEntity<Object> deleteUser(Long userId) {
@@ -1,42 +1,66 @@
 package ru.practicum.shareit.user;
 
-import jakarta.validation.Valid;
-import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static ru.practicum.shareit.validation.ParamChecks.requireAtMost;
+import static ru.practicum.shareit.validation.ParamChecks.requirePositive;
+import static ru.practicum.shareit.validation.ParamChecks.requirePositiveOrZero;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserClient client;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
+    public ResponseEntity<Object> createUser(@RequestBody UserDto userDto) {
+        UserValidator.validate(userDto);
         return client.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable @Positive Long userId, @RequestBody UserDto userDto) {
+    public ResponseEntity<Object> updateUser(@PathVariable Long userId, @RequestBody UserDto userDto) {
+        requirePositive("userId", userId);
         return client.updateUser(userId, userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable @Positive Long userId) {
+    public ResponseEntity<Object> getUser(@PathVariable Long userId) {
+        requirePositive("userId", userId);
         return client.getUser(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        return client.getAllUsers();
+    public ResponseEntity<Object> getUsers(@RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = "100") int size) {
+        if (afterId != null) {
+            requirePositiveOrZero("afterId", afterId);
+        }
+        requirePositive("size", size);
+        requireAtMost("size", size, MAX_PAGE_SIZE);
+        return client.getUsers(afterId, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        requirePositive("userId", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(client.exportUsers(userId));
     }
 
     @DeleteMapping("/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive Long userId) {
+    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+        requirePositive("userId", userId);
         return client.deleteUser(userId);
     }
 }
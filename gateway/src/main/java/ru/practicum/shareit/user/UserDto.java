@@ -1,17 +1,12 @@
 package ru.practicum.shareit.user;
 
-import jakarta.validation.constraints.Email;
-import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
 @Data
 public class UserDto {
     private Long id;
 
-    @NotBlank(message = "Имя пользователя не может быть пустым")
     private String name;
 
-    @Email(message = "Некорректный email")
-    @NotBlank(message = "Email не может быть пустым")
     private String email;
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.validation;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Checks of path and query parameters, done inline instead of through method validation.
+ */
+public final class ParamChecks {
+    private ParamChecks() {
+    }
+
+    public static void requirePositive(String name, long value) {
+        if (value <= 0) {
+            throw new ValidationException("Параметр " + name + " должен быть положительным");
+        }
+    }
+
+    public static void requirePositiveOrZero(String name, long value) {
+        if (value < 0) {
+            throw new ValidationException("Параметр " + name + " не может быть отрицательным");
+        }
+    }
+
+    public static void requireAtMost(String name, long value, long max) {
+        if (value > max) {
+            throw new ValidationException("Параметр " + name + " не может быть больше " + max);
+        }
+    }
+
+    public static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingValidatorTest {
+
+    private static BookingRequestDto booking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingRequestDto dto = new BookingRequestDto();
+        dto.setItemId(itemId);
+        dto.setStart(start);
+        dto.setEnd(end);
+        return dto;
+    }
+
+    private static BookingBatchRequestDto batch(List<Long> bookingIds, Boolean approved) {
+        BookingBatchRequestDto dto = new BookingBatchRequestDto();
+        dto.setBookingIds(bookingIds);
+        dto.setApproved(approved);
+        return dto;
+    }
+
+    private static void assertViolation(String message, BookingRequestDto dto) {
+        ValidationException e = assertThrows(ValidationException.class, () -> BookingValidator.validate(dto));
+        assertEquals(message, e.getMessage());
+    }
+
+    private static void assertViolation(String message, BookingBatchRequestDto dto) {
+        ValidationException e = assertThrows(ValidationException.class, () -> BookingValidator.validate(dto));
+        assertEquals(message, e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Корректное бронирование проходит проверку")
+    void validate_ShouldAcceptFutureBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertDoesNotThrow(() -> BookingValidator.validate(booking(1L, start, start.plusDays(1))));
+    }
+
+    @Test
+    @DisplayName("Бронирование без вещи или дат отклоняется с прежними сообщениями")
+    void validate_ShouldRejectMissingFields() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertViolation("ID вещи не может быть пустым", booking(null, start, start.plusDays(1)));
+        assertViolation("Дата начала бронирования должна быть указана", booking(1L, null, start.plusDays(1)));
+        assertViolation("Дата конца бронирования должна быть указана", booking(1L, start, null));
+    }
+
+    @Test
+    @DisplayName("Бронирование с датами в прошлом отклоняется с прежними сообщениями")
+    void validate_ShouldRejectPastDates() {
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+
+        assertViolation("Дата и время начала бронирования не может быть в прошлом", booking(1L, past, future));
+        assertViolation("Дата и время конца бронирования не может быть в прошлом", booking(1L, future, past));
+    }
+
+    @Test
+    @DisplayName("Корректный пакет бронирований проходит проверку")
+    void validateBatch_ShouldAcceptIdsAndDecision() {
+        assertDoesNotThrow(() -> BookingValidator.validate(batch(List.of(1L, 2L), true)));
+    }
+
+    @Test
+    @DisplayName("Пакет без бронирований, со слишком большим списком или без решения отклоняется с прежними сообщениями")
+    void validateBatch_ShouldRejectInvalidBatch() {
+        List<Long> tooMany = LongStream.rangeClosed(1, BookingValidator.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        assertViolation("Список бронирований не может быть пустым", batch(null, true));
+        assertViolation("Список бронирований не может быть пустым", batch(Collections.emptyList(), true));
+        assertViolation("Слишком много бронирований в одном запросе", batch(tooMany, true));
+        assertViolation("Решение по бронированиям должно быть указано", batch(List.of(1L), null));
+    }
+
+    @Test
+    @DisplayName("Пакет с пустым или неположительным ID бронирования отклоняется")
+    void validateBatch_ShouldRejectInvalidIds() {
+        assertViolation("ID бронирования должен быть положительным", batch(Arrays.asList(1L, null), true));
+        assertViolation("ID бронирования должен быть положительным", batch(List.of(1L, 0L), true));
+    }
+}
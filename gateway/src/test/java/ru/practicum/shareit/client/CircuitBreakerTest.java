@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static CircuitBreaker breaker(Duration openDuration) {
+        ResilienceProperties.Breaker settings = new ResilienceProperties.Breaker();
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(0.5);
+        settings.setOpenDuration(openDuration);
+        settings.setHalfOpenProbes(2);
+        return new CircuitBreaker(settings);
+    }
+
+    private static void record(CircuitBreaker breaker, int successes, int failures) {
+        for (int i = 0; i < successes; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onSuccess();
+        }
+        for (int i = 0; i < failures; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    @DisplayName("Выключатель не размыкается, пока вызовов меньше минимума")
+    void shouldStayClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        record(breaker, 0, 3);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Выключатель размыкается при доле ошибок не ниже порога и отклоняет вызовы")
+    void shouldOpenAtFailureRateThreshold() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        record(breaker, 2, 1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        record(breaker, 0, 1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Старые результаты вытесняются из окна")
+    void shouldForgetOutcomesOutsideWindow() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        record(breaker, 3, 2);
+        record(breaker, 10, 0);
+        record(breaker, 0, 4);
+
+        // the two early failures are out of the window: 4 of the last 10 calls failed
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        record(breaker, 0, 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("После паузы выключатель пропускает ограниченное число пробных вызовов и замыкается при их успехе")
+    void shouldCloseAfterSuccessfulProbes() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        record(breaker, 0, 4);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        // the window starts over: earlier failures no longer count
+        record(breaker, 0, 3);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Ошибка пробного вызова снова размыкает выключатель")
+    void shouldReopenOnFailedProbe() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        record(breaker, 0, 4);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Пробный вызов, не дошедший до сервера, возвращает разрешение")
+    void ignoredProbeShouldReturnPermission() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        record(breaker, 0, 4);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onIgnored();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+}
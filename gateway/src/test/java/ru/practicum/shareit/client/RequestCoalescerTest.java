@@ -0,0 +1,160 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+    private static final URI URI_ITEMS = URI.create("http://server/items/1");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        releaseLeader.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Одинаковый запрос во время выполнения первого получает его ответ без обращения к серверу")
+    void execute_JoinerShouldShareLeaderResponse() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+
+        Future<ResponseEntity<Object>> leader = executor.submit(() ->
+                coalescer.execute(URI_ITEMS, 1L, blockingCall(() -> response)));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        FutureTask<ResponseEntity<Object>> joiner = new FutureTask<>(() ->
+                coalescer.execute(URI_ITEMS, 1L, countingCall(() -> ResponseEntity.ok("other"))));
+        awaitBlocked(start(joiner));
+        releaseLeader.countDown();
+
+        assertSame(response, leader.get(5, TimeUnit.SECONDS));
+        assertSame(response, joiner.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1, count("leader"));
+        assertEquals(1, count("joined"));
+    }
+
+    @Test
+    @DisplayName("Запросы разных пользователей не объединяются")
+    void execute_DifferentUsersShouldNotShareCall() {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+
+        coalescer.execute(URI_ITEMS, 1L, countingCall(() -> ResponseEntity.ok("first")));
+        coalescer.execute(URI_ITEMS, 2L, countingCall(() -> ResponseEntity.ok("second")));
+
+        assertEquals(2, calls.get());
+        assertEquals(2, count("leader"));
+    }
+
+    @Test
+    @DisplayName("Ошибка общего запроса передаётся всем ожидающим")
+    void execute_LeaderErrorShouldPropagateToJoiners() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+        ServiceUnavailableException failure = new ServiceUnavailableException("Сервер временно недоступен");
+
+        Future<ResponseEntity<Object>> leader = executor.submit(() ->
+                coalescer.execute(URI_ITEMS, 1L, blockingCall(() -> {
+                    throw failure;
+                })));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        FutureTask<ResponseEntity<Object>> joiner = new FutureTask<>(() ->
+                coalescer.execute(URI_ITEMS, 1L, countingCall(() -> ResponseEntity.ok("other"))));
+        awaitBlocked(start(joiner));
+        releaseLeader.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException joinerError = assertThrows(ExecutionException.class, () -> joiner.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, joinerError.getCause());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Ожидающий, не дождавшийся общего запроса, получает 503 и не обращается к серверу сам")
+    void execute_JoinerTimeoutShouldFailWithoutOwnCall() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofMillis(50), meterRegistry);
+
+        executor.submit(() -> coalescer.execute(URI_ITEMS, 1L, blockingCall(() -> ResponseEntity.ok("item"))));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> coalescer.execute(URI_ITEMS, 1L, countingCall(() -> ResponseEntity.ok("other"))));
+        assertEquals(1, calls.get());
+        assertEquals(1, count("timeout"));
+    }
+
+    @Test
+    @DisplayName("После завершения запроса следующий одинаковый запрос снова обращается к серверу")
+    void execute_CompletedCallShouldNotBeReused() {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+
+        coalescer.execute(URI_ITEMS, 1L, countingCall(() -> ResponseEntity.ok("first")));
+        coalescer.execute(URI_ITEMS, 1L, countingCall(() -> ResponseEntity.ok("second")));
+
+        assertEquals(2, calls.get());
+        assertEquals(0, meterRegistry.get("shareit.gateway.coalescing.in-flight").gauge().value());
+    }
+
+    private Supplier<ResponseEntity<Object>> countingCall(Supplier<ResponseEntity<Object>> call) {
+        return () -> {
+            calls.incrementAndGet();
+            return call.get();
+        };
+    }
+
+    private Supplier<ResponseEntity<Object>> blockingCall(Supplier<ResponseEntity<Object>> call) {
+        return countingCall(() -> {
+            leaderStarted.countDown();
+            try {
+                releaseLeader.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return call.get();
+        });
+    }
+
+    private static Thread start(FutureTask<?> task) {
+        Thread thread = new Thread(task, "joiner");
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * A joiner parks on the leader's future, so once it is parked it can only finish with the leader's result.
+     */
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.TIMED_WAITING, thread.getState());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("shareit.gateway.coalescing").tag("result", result).counter().count();
+    }
+}
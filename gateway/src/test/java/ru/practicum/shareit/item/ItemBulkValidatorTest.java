@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemBulkValidatorTest {
+    private static final String DRILL = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}";
+
+    private ItemBulkValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new ItemBulkValidator(new ObjectMapper());
+        ReflectionTestUtils.setField(validator, "maxSize", 2);
+    }
+
+    private byte[] validate(String body) throws IOException {
+        return validator.toValidatedNdjson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void assertViolation(String message, String body) {
+        ValidationException e = assertThrows(ValidationException.class, () -> validate(body));
+        assertEquals(message, e.getMessage());
+    }
+
+    @Test
+    @DisplayName("JSON-массив и NDJSON перекодируются в NDJSON")
+    void toValidatedNdjson_ShouldAcceptArrayAndNdjson() throws IOException {
+        String fromArray = new String(validate("[" + DRILL + "," + DRILL + "]"), StandardCharsets.UTF_8);
+        String fromNdjson = new String(validate(DRILL + "\n" + DRILL), StandardCharsets.UTF_8);
+
+        assertEquals(fromArray, fromNdjson);
+        assertEquals(2, fromArray.lines().count());
+        assertTrue(fromArray.contains("\"name\":\"Дрель\""));
+    }
+
+    @Test
+    @DisplayName("Невалидная вещь отклоняет всю загрузку с номером вещи и сообщением проверки вещи")
+    void toValidatedNdjson_ShouldRejectInvalidItemWithItsIndex() {
+        assertViolation("Вещь №2: Доступность вещи должна быть указана",
+                "[" + DRILL + ",{\"name\":\"Дрель\",\"description\":\"Простая дрель\"}]");
+        assertViolation("Некорректный формат вещи №2", "[" + DRILL + ",{\"available\":\"может быть\"}]");
+    }
+
+    @Test
+    @DisplayName("Пустая загрузка и загрузка больше лимита отклоняются")
+    void toValidatedNdjson_ShouldRejectEmptyAndOversizedUploads() {
+        assertViolation("Список вещей не может быть пустым", "[]");
+        assertViolation("Слишком много вещей в одном запросе: максимум 2", "[" + DRILL + "," + DRILL + "," + DRILL + "]");
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemValidatorTest {
+
+    private static ItemDto item(String name, String description, Boolean available) {
+        ItemDto dto = new ItemDto();
+        dto.setName(name);
+        dto.setDescription(description);
+        dto.setAvailable(available);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Корректная вещь проходит проверку")
+    void validate_ShouldAcceptItem() {
+        ItemDto dto = item("Дрель", "Простая дрель", false);
+
+        assertNull(ItemValidator.findViolation(dto));
+        assertDoesNotThrow(() -> ItemValidator.validate(dto));
+    }
+
+    @Test
+    @DisplayName("Вещь без названия, описания или доступности отклоняется с прежними сообщениями")
+    void validate_ShouldRejectMissingFields() {
+        assertEquals("Название вещи не может быть пустым", ItemValidator.findViolation(item(" ", "Дрель", true)));
+        assertEquals("Описание вещи не может быть пустым", ItemValidator.findViolation(item("Дрель", null, true)));
+        assertEquals("Доступность вещи должна быть указана", ItemValidator.findViolation(item("Дрель", "Дрель", null)));
+
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> ItemValidator.validate(item(null, "Дрель", true)));
+        assertEquals("Название вещи не может быть пустым", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Пустой комментарий отклоняется с прежним сообщением")
+    void validateComment_ShouldRejectBlankText() {
+        CommentDto comment = new CommentDto();
+        comment.setText("Отличная дрель");
+        assertDoesNotThrow(() -> ItemValidator.validate(comment));
+
+        comment.setText("  ");
+        ValidationException e = assertThrows(ValidationException.class, () -> ItemValidator.validate(comment));
+        assertEquals("Комментарий не может быть пустым", e.getMessage());
+    }
+}
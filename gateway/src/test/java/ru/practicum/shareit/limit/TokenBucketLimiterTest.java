@@ -0,0 +1,112 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+    private static final long START = TimeUnit.HOURS.toNanos(1);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private TokenBucketLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        limiter.close();
+    }
+
+    private TokenBucketLimiter limiter(int maxTrackedClients) {
+        LimitProperties properties = new LimitProperties();
+        LimitProperties.Budget budget = new LimitProperties.Budget();
+        budget.setRatePerSecond(10);
+        budget.setBurst(3);
+        properties.getBudgets().put(EndpointGroup.WRITE, budget);
+        properties.setMaxTrackedClients(maxTrackedClients);
+        // the test sweeps by hand
+        properties.setSweepInterval(Duration.ofHours(1));
+        limiter = new TokenBucketLimiter(properties);
+        return limiter;
+    }
+
+    @Test
+    @DisplayName("Клиент может сразу сделать burst запросов, следующий отклоняется с временем ожидания")
+    void tryAcquire_ShouldAllowBurstThenReject() {
+        limiter(100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(EndpointGroup.WRITE, "1", START));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire(EndpointGroup.WRITE, "1", START));
+    }
+
+    @Test
+    @DisplayName("Ведро пополняется со скоростью бюджета")
+    void tryAcquire_ShouldRefillAtRate() {
+        limiter(100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(EndpointGroup.WRITE, "1", START);
+        }
+
+        assertTrue(limiter.tryAcquire(EndpointGroup.WRITE, "1", START + INTERVAL / 2) > 0);
+        assertEquals(0, limiter.tryAcquire(EndpointGroup.WRITE, "1", START + INTERVAL));
+        assertTrue(limiter.tryAcquire(EndpointGroup.WRITE, "1", START + INTERVAL) > 0);
+        // a long pause refills only up to the burst
+        long later = START + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(EndpointGroup.WRITE, "1", later));
+        }
+        assertTrue(limiter.tryAcquire(EndpointGroup.WRITE, "1", later) > 0);
+    }
+
+    @Test
+    @DisplayName("Клиенты и группы без бюджета не ограничивают друг друга")
+    void tryAcquire_ShouldKeepClientsApartAndSkipGroupsWithoutBudget() {
+        limiter(100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(EndpointGroup.WRITE, "1", START);
+        }
+
+        assertEquals(0, limiter.tryAcquire(EndpointGroup.WRITE, "2", START));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(EndpointGroup.READ, "1", START));
+        }
+        assertEquals(2, limiter.getTrackedClients());
+    }
+
+    @Test
+    @DisplayName("Очистка забывает только клиентов с полным ведром")
+    void sweep_ShouldDropOnlyRefilledClients() {
+        limiter(100);
+        limiter.tryAcquire(EndpointGroup.WRITE, "idle", START);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(EndpointGroup.WRITE, "busy", START + 2 * INTERVAL);
+        }
+
+        limiter.sweep(START + 2 * INTERVAL);
+
+        assertEquals(1, limiter.getTrackedClients());
+        assertTrue(limiter.tryAcquire(EndpointGroup.WRITE, "busy", START + 2 * INTERVAL) > 0);
+    }
+
+    @Test
+    @DisplayName("При заполненной таблице новые клиенты делят общее ведро, а не проходят без ограничений")
+    void tryAcquire_FullTableShouldShareOverflowBucket() {
+        limiter(1);
+        limiter.tryAcquire(EndpointGroup.WRITE, "known", START);
+
+        int admitted = 0;
+        for (int client = 0; client < 10; client++) {
+            if (limiter.tryAcquire(EndpointGroup.WRITE, "new-" + client, START) == 0) {
+                admitted++;
+            }
+        }
+
+        assertEquals(3, admitted);
+        assertEquals(2, limiter.getTrackedClients());
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserValidatorTest {
+
+    private static UserDto user(String name, String email) {
+        UserDto dto = new UserDto();
+        dto.setName(name);
+        dto.setEmail(email);
+        return dto;
+    }
+
+    private static void assertViolation(String message, UserDto dto) {
+        ValidationException e = assertThrows(ValidationException.class, () -> UserValidator.validate(dto));
+        assertEquals(message, e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Корректный пользователь проходит проверку")
+    void validate_ShouldAcceptUser() {
+        assertDoesNotThrow(() -> UserValidator.validate(user("User", "user@example.com")));
+    }
+
+    @Test
+    @DisplayName("Пользователь без имени или email отклоняется с прежними сообщениями")
+    void validate_ShouldRejectMissingFields() {
+        assertViolation("Имя пользователя не может быть пустым", user("", "user@example.com"));
+        assertViolation("Email не может быть пустым", user("User", null));
+        assertViolation("Email не может быть пустым", user("User", " "));
+        assertViolation("Некорректный email", user("User", "user.example.com"));
+    }
+
+    @Test
+    @DisplayName("Email проверяется так же, как аннотацией @Email")
+    void isEmail_ShouldMatchEmailConstraint() {
+        assertTrue(UserValidator.isEmail("user@example.com"));
+        assertTrue(UserValidator.isEmail("user@localhost"));
+        assertFalse(UserValidator.isEmail("@example.com"));
+        assertFalse(UserValidator.isEmail("user@"));
+        assertFalse(UserValidator.isEmail("user@@example.com"));
+        assertFalse(UserValidator.isEmail("us er@example.com"));
+        assertFalse(UserValidator.isEmail("user@.example.com"));
+        assertFalse(UserValidator.isEmail("user@example.com."));
+    }
+}
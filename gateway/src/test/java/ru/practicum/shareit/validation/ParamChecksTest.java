@@ -0,0 +1,50 @@
+package ru.practicum.shareit.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParamChecksTest {
+
+    @Test
+    @DisplayName("Положительный параметр: ноль и отрицательные значения отклоняются")
+    void requirePositive_ShouldRejectZeroAndNegative() {
+        ParamChecks.requirePositive("size", 1);
+
+        ValidationException zero = assertThrows(ValidationException.class,
+                () -> ParamChecks.requirePositive("size", 0));
+        assertEquals("Параметр size должен быть положительным", zero.getMessage());
+        assertThrows(ValidationException.class, () -> ParamChecks.requirePositive("userId", -1));
+    }
+
+    @Test
+    @DisplayName("Неотрицательный параметр: ноль допустим, отрицательные значения отклоняются")
+    void requirePositiveOrZero_ShouldRejectOnlyNegative() {
+        ParamChecks.requirePositiveOrZero("from", 0);
+
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> ParamChecks.requirePositiveOrZero("from", -1));
+        assertEquals("Параметр from не может быть отрицательным", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Ограниченный сверху параметр: значение больше максимума отклоняется")
+    void requireAtMost_ShouldRejectAboveMax() {
+        ParamChecks.requireAtMost("size", 100, 100);
+
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> ParamChecks.requireAtMost("size", 101, 100));
+        assertEquals("Параметр size не может быть больше 100", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Пустыми считаются null, пустая строка и строка из пробелов")
+    void isBlank_ShouldMatchNotBlankConstraint() {
+        assertTrue(ParamChecks.isBlank(null));
+        assertTrue(ParamChecks.isBlank(""));
+        assertTrue(ParamChecks.isBlank(" \t"));
+        assertFalse(ParamChecks.isBlank(" a "));
+    }
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -23,6 +25,12 @@ public class BookingController {
         return service.createBooking(userId, dto);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> approveBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestBody BookingBatchRequestDto request) {
+        return service.updateBookings(userId, request);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
                               @RequestParam Boolean approved) {
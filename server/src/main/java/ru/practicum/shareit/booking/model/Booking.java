@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.persistence.PooledLoSequence;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -16,7 +18,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledLoSequence("bookings_seq")
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -25,10 +27,12 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
 
+    @ToString.Exclude
     @ManyToOne
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
+    @ToString.Exclude
     @ManyToOne
     @JoinColumn(name = "booker_id")
     private User booker;
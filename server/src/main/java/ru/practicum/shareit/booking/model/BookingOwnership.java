@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.model;
+
+public interface BookingOwnership {
+    Long getId();
+
+    Long getItemId();
+
+    Long getOwnerId();
+
+    Long getBookerId();
+
+    BookingStatus getStatus();
+}
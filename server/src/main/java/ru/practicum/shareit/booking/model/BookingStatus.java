@@ -1,8 +1,14 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    public static final Set<BookingStatus> ACTIVE = Collections.unmodifiableSet(EnumSet.of(WAITING, APPROVED));
 }
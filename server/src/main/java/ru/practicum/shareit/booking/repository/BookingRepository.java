@@ -3,12 +3,18 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingOwnership;
+import ru.practicum.shareit.booking.model.BookingPeriod;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -34,6 +40,14 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Page<Booking> findByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime start, Pageable pageable);
 
+    List<BookingPeriod> findByItem_IdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
+    Optional<Booking> findFirstByItem_IdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime now);
+
+    Optional<Booking> findFirstByItem_IdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime now);
+
+    Optional<Booking> findFirstByItem_IdAndEndAfterOrderByEndAsc(Long itemId, LocalDateTime now);
+
     boolean existsByBookerIdAndItemIdAndEndBefore(Long bookerId, Long itemId, LocalDateTime end);
 
     @Query("select b from Booking b " +
@@ -48,4 +62,40 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "b.start > ?3 " +
             "order by b.start desc")
     List<Booking> findFutureOwnerBookings(long itemId, long ownerId, LocalDateTime now);
-}
\ No newline at end of file
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = ?1 and " +
+            "b.status in ?4 and " +
+            "b.start < ?3 and b.end > ?2")
+    boolean existsOverlapping(long itemId, LocalDateTime start, LocalDateTime end, Collection<BookingStatus> statuses);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status " +
+            "where b.id = :bookingId and " +
+            "b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING and " +
+            "b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(Long bookingId, Long ownerId, BookingStatus status);
+
+    @Query("select b.id as id, b.item.id as itemId, b.item.owner.id as ownerId, b.booker.id as bookerId, " +
+            "b.status as status from Booking b where b.id in :bookingIds")
+    List<BookingOwnership> findOwnershipByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Locks the booking rows until the end of the transaction, so their status read afterwards cannot change
+     * before the update. Rows are locked in id order so that overlapping batches do not deadlock.
+     */
+    @Query(value = "SELECT id FROM bookings WHERE id IN (:bookingIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(Collection<Long> bookingIds);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status " +
+            "where b.id in :bookingIds and " +
+            "b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING and " +
+            "b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(Collection<Long> bookingIds, Long ownerId, BookingStatus status);
+
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(Long bookerId);
+}
@@ -0,0 +1,319 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of active (WAITING/APPROVED) booking periods per item.
+ * An item is loaded from the database on first request and then kept up to date by the booking service,
+ * so availability queries are answered by a binary search over primitive arrays.
+ * At most {@code shareit.booking.index.max-items} items are kept; beyond that an arbitrary item is dropped
+ * and reloaded when it is asked for again.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private static final int VERSION_STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    @Value("${shareit.booking.index.max-items:10000}")
+    private int maxItems = 10_000;
+
+    public boolean isLoaded(Long itemId) {
+        return items.containsKey(itemId);
+    }
+
+    public List<AvailabilityIntervalDto> findBusy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals == null) {
+            intervals = load(itemId);
+        }
+        return intervals.busy(toEpochMillis(from), toEpochMillis(to));
+    }
+
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        long startMillis = toEpochMillis(start);
+        long endMillis = toEpochMillis(end);
+        afterCommit(() -> {
+            versions.incrementAndGet(stripe(itemId));
+            items.computeIfPresent(itemId, (id, intervals) -> intervals.with(bookingId, startMillis, endMillis));
+        });
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        afterCommit(() -> {
+            versions.incrementAndGet(stripe(itemId));
+            items.computeIfPresent(itemId, (id, intervals) -> intervals.without(bookingId));
+        });
+    }
+
+    public void evict(Long itemId) {
+        evictAll(List.of(itemId));
+    }
+
+    /**
+     * Drops items whose bookings changed outside the booking service, e.g. removed by a cascading delete.
+     */
+    public void evictAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (Long itemId : itemIds) {
+                versions.incrementAndGet(stripe(itemId));
+                items.remove(itemId);
+            }
+        });
+    }
+
+    private ItemIntervals load(Long itemId) {
+        long version = versions.get(stripe(itemId));
+        List<BookingPeriod> periods = bookingRepository.findByItem_IdAndStatusIn(itemId, BookingStatus.ACTIVE);
+        ItemIntervals loaded = ItemIntervals.of(periods);
+        if (versions.get(stripe(itemId)) != version) {
+            // a booking of this stripe changed while loading; serve the result but do not cache a possibly stale copy
+            return loaded;
+        }
+        ItemIntervals existing = items.putIfAbsent(itemId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        trim(itemId);
+        return loaded;
+    }
+
+    /**
+     * Keeps the cache within {@link #maxItems}. Which items go does not matter for correctness, a dropped item
+     * is simply reloaded, so the first ones the iterator offers are taken instead of tracking recency.
+     */
+    private void trim(Long justLoaded) {
+        Iterator<Long> iterator = items.keySet().iterator();
+        while (items.size() > maxItems && iterator.hasNext()) {
+            if (!iterator.next().equals(justLoaded)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static int stripe(Long itemId) {
+        return (int) (itemId & (VERSION_STRIPES - 1));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Immutable snapshot of item bookings sorted by start. {@code maxEnds[i]} is the maximum end among the first
+     * {@code i + 1} intervals, which keeps the lookup logarithmic even if intervals happen to overlap.
+     */
+    static final class ItemIntervals {
+        private static final ItemIntervals EMPTY = new ItemIntervals(new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private ItemIntervals(long[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        static ItemIntervals of(List<BookingPeriod> periods) {
+            if (periods.isEmpty()) {
+                return EMPTY;
+            }
+            // periods are projections, so each is read once; then a stable sort by start keeps equal starts
+            // in list order, as repeated with() calls would
+            int n = periods.size();
+            long[] readIds = new long[n];
+            long[] readStarts = new long[n];
+            long[] readEnds = new long[n];
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                BookingPeriod period = periods.get(i);
+                readIds[i] = period.getId();
+                readStarts[i] = toEpochMillis(period.getStart());
+                readEnds[i] = toEpochMillis(period.getEnd());
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> readStarts[i]));
+            long[] ids = new long[n];
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = readIds[order[i]];
+                starts[i] = readStarts[order[i]];
+                ends[i] = readEnds[order[i]];
+            }
+            return new ItemIntervals(ids, starts, ends);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        ItemIntervals with(long id, long start, long end) {
+            ItemIntervals base = without(id);
+            int n = base.ids.length;
+            int pos = base.insertionPoint(start);
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(base.ids, 0, newIds, 0, pos);
+            System.arraycopy(base.starts, 0, newStarts, 0, pos);
+            System.arraycopy(base.ends, 0, newEnds, 0, pos);
+            newIds[pos] = id;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(base.ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+            return new ItemIntervals(newIds, newStarts, newEnds);
+        }
+
+        /**
+         * Index of the first interval starting after {@code start}, so equal starts keep insertion order.
+         */
+        private int insertionPoint(long start) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= start) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        ItemIntervals without(long id) {
+            int pos = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                return this;
+            }
+            int n = ids.length;
+            long[] newIds = new long[n - 1];
+            long[] newStarts = new long[n - 1];
+            long[] newEnds = new long[n - 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            System.arraycopy(ids, pos + 1, newIds, pos, n - pos - 1);
+            System.arraycopy(starts, pos + 1, newStarts, pos, n - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, n - pos - 1);
+            return new ItemIntervals(newIds, newStarts, newEnds);
+        }
+
+        /**
+         * Returns busy intervals intersecting {@code [from, to)}, clipped to the window and merged.
+         */
+        List<AvailabilityIntervalDto> busy(long from, long to) {
+            int first = firstEndingAfter(from);
+            int last = firstStartingAtOrAfter(to);
+            long[] merged = new long[2 * Math.max(0, last - first)];
+            int count = 0;
+            for (int i = first; i < last; i++) {
+                if (ends[i] <= from) {
+                    continue;
+                }
+                long start = Math.max(starts[i], from);
+                long end = Math.min(ends[i], to);
+                if (count > 0 && start <= merged[2 * count - 1]) {
+                    merged[2 * count - 1] = Math.max(merged[2 * count - 1], end);
+                } else {
+                    merged[2 * count] = start;
+                    merged[2 * count + 1] = end;
+                    count++;
+                }
+            }
+            List<AvailabilityIntervalDto> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(new AvailabilityIntervalDto(fromEpochMillis(merged[2 * i]),
+                        fromEpochMillis(merged[2 * i + 1])));
+            }
+            return result;
+        }
+
+        private int firstStartingAtOrAfter(long to) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < to) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstEndingAfter(long from) {
+            int index = Arrays.binarySearch(maxEnds, from);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index < maxEnds.length && maxEnds[index] <= from) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
@@ -10,6 +12,8 @@ public interface BookingService {
 
     BookingDto updateBooking(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingBatchResultDto> updateBookings(Long userId, BookingBatchRequestDto request);
+
     BookingDto getBookingById(Long userId, Long bookingId);
 
     List<BookingDto> getUserBookings(Long userId, String state, int from, int size);
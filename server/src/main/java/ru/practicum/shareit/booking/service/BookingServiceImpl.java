@@ -2,40 +2,72 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchOutcome;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingOwnership;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.event.model.EventType;
 import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryService;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
+import ru.practicum.shareit.persistence.ConstraintViolations;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "ex_booking_item_overlap";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingMapper mapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemSummaryService itemSummaryService;
+
+    @Value("${shareit.booking.batch.max-size:100}")
+    private int batchMaxSize = 100;
+
+    @Value("${shareit.booking.overlap-check-in-application:false}")
+    private boolean overlapCheckInApplication;
 
     @Override
+    @Transactional
     public BookingDto createBooking(Long userId, BookingRequestDto dto) {
-        log.info("Создание бронирования пользователем ID: {}", userId);
+        log.info("Создание бронирования: userId={}, itemId={}", userId, dto.getItemId());
 
         if (dto.getStart() == null || dto.getEnd() == null) {
             throw new ValidationException("Дата начала и окончания не могут быть пустыми");
@@ -47,8 +79,7 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Дата начала не может быть в прошлом");
         }
 
-        Item item = itemRepository.findById(dto.getItemId())
-                .orElseThrow(() -> new NotFoundException("Вещь с ID " + dto.getItemId() + " не найдена"));
+        Item item = findItemForBooking(dto.getItemId());
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден"));
@@ -59,6 +90,10 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new ValidationException("Нельзя бронировать собственную вещь");
         }
+        if (overlapCheckInApplication && bookingRepository.existsOverlapping(item.getId(), dto.getStart(),
+                dto.getEnd(), BookingStatus.ACTIVE)) {
+            throw new ConflictException("Вещь уже забронирована на указанный период");
+        }
 
         Booking booking = new Booking();
         booking.setStart(dto.getStart());
@@ -67,38 +102,117 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(user);
         booking.setStatus(BookingStatus.WAITING);
 
-        Booking savedBooking = bookingRepository.save(booking);
-        log.info("Бронирование создано с ID: {}", savedBooking.getId());
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, OVERLAP_CONSTRAINT)) {
+                throw e;
+            }
+            log.info("Пересечение бронирований: itemId={}, userId={}", item.getId(), userId);
+            throw new ConflictException("Вещь уже забронирована на указанный период");
+        }
+        bookingIntervalIndex.add(item.getId(), savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd());
+        itemSummaryService.refreshBookings(item.getId());
+        outboxPublisher.publish(item.getOwner().getId(),
+                bookingEvent(EventType.BOOKING_CREATED, savedBooking.getId(), item.getId()));
+        log.info("Бронирование создано: bookingId={}", savedBooking.getId());
 
         return mapper.toBookingDto(savedBooking);
     }
 
     @Override
+    @Transactional
     public BookingDto updateBooking(Long userId, Long bookingId, Boolean approved) {
-        log.info("Обновление бронирования id: {} пользователем ID: {}. Статус: {}", bookingId, userId, approved);
+        log.info("Обновление бронирования: bookingId={}, userId={}, approved={}", bookingId, userId, approved);
+
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateStatusIfWaiting(bookingId, userId, status);
 
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new AccessDeniedException("Пользователь не является владельцем вещи");
+        if (updated == 0) {
+            if (!booking.getItem().getOwner().getId().equals(userId)) {
+                throw new AccessDeniedException("Пользователь не является владельцем вещи");
+            }
+            throw new ValidationException("Бронирование уже было обработано");
         }
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new ValidationException("Бронирование уже было обработано");
+        if (status == BookingStatus.REJECTED) {
+            bookingIntervalIndex.remove(booking.getItem().getId(), bookingId);
+        }
+        outboxPublisher.publish(booking.getBooker().getId(), bookingEvent(decisionEvent(status), bookingId,
+                booking.getItem().getId()));
+        log.info("Бронирование обновлено: bookingId={}, status={}", bookingId, status);
+
+        return mapper.toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> updateBookings(Long userId, BookingBatchRequestDto request) {
+        if (request.getApproved() == null) {
+            throw new ValidationException("Не указано решение по бронированиям");
+        }
+        if (request.getBookingIds() == null || request.getBookingIds().isEmpty()) {
+            throw new ValidationException("Список бронирований не может быть пустым");
+        }
+        Set<Long> bookingIds = new LinkedHashSet<>(request.getBookingIds());
+        if (bookingIds.contains(null)) {
+            throw new ValidationException("ID бронирования не может быть пустым");
+        }
+        if (bookingIds.size() > batchMaxSize) {
+            throw new ValidationException("Слишком много бронирований в одном запросе: максимум " + batchMaxSize);
         }
+        log.info("Пакетное обновление бронирований: userId={}, count={}, approved={}",
+                userId, bookingIds.size(), request.getApproved());
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        BookingStatus status = request.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // a parallel decision on the same bookings waits here, so the statuses read below are the ones updated
+        bookingRepository.lockByIdIn(bookingIds);
+        Map<Long, BookingOwnership> current = bookingRepository.findOwnershipByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(BookingOwnership::getId, Function.identity()));
 
-        Booking updatedBooking = bookingRepository.save(booking);
-        log.info("Бронирование ID: {} обновлено. Новый статус: {}", bookingId, booking.getStatus());
+        Set<Long> updatedIds = current.values().stream()
+                .filter(booking -> booking.getOwnerId().equals(userId))
+                .filter(booking -> booking.getStatus() == BookingStatus.WAITING)
+                .map(BookingOwnership::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!updatedIds.isEmpty()) {
+            bookingRepository.updateStatusIfWaiting(updatedIds, userId, status);
+        }
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingIds.size());
+        for (Long bookingId : bookingIds) {
+            BookingOwnership booking = current.get(bookingId);
+            BookingBatchResultDto result = BookingBatchResultDto.builder().bookingId(bookingId).build();
+            if (booking == null) {
+                result.setOutcome(BookingBatchOutcome.NOT_FOUND);
+            } else if (!booking.getOwnerId().equals(userId)) {
+                result.setOutcome(BookingBatchOutcome.FORBIDDEN);
+            } else if (updatedIds.contains(bookingId)) {
+                result.setOutcome(BookingBatchOutcome.UPDATED);
+                result.setStatus(status);
+                if (status == BookingStatus.REJECTED) {
+                    bookingIntervalIndex.remove(booking.getItemId(), bookingId);
+                }
+                outboxPublisher.publish(booking.getBookerId(), bookingEvent(decisionEvent(status), bookingId,
+                        booking.getItemId()));
+            } else {
+                result.setOutcome(BookingBatchOutcome.ALREADY_PROCESSED);
+                result.setStatus(booking.getStatus());
+            }
+            results.add(result);
+        }
+        log.info("Пакетное обновление завершено: userId={}, updated={}", userId, updatedIds.size());
 
-        return mapper.toBookingDto(updatedBooking);
+        return results;
     }
 
     @Override
     public BookingDto getBookingById(Long userId, Long bookingId) {
-        log.info("Получение бронирования ID: {} пользователем ID: {}", bookingId, userId);
+        log.debug("Получение бронирования: bookingId={}, userId={}", bookingId, userId);
 
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
@@ -113,7 +227,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getUserBookings(Long userId, String state, int from, int size) {
-        log.info("Получение бронирований пользователя ID: {}. Статус: {}, from: {}, size: {}",
+        log.debug("Получение бронирований пользователя: userId={}, state={}, from={}, size={}",
                 userId, state, from, size);
 
         Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
@@ -145,7 +259,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getOwnerBookings(Long ownerId, String state) {
-        log.info("Получение бронирований владельца ID: {}. Статус: {}", ownerId, state);
+        log.debug("Получение бронирований владельца: ownerId={}, state={}", ownerId, state);
 
         userRepository.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ID " + ownerId + " не найден"));
@@ -178,4 +292,24 @@ public class BookingServiceImpl implements BookingService {
                 throw new ValidationException("Неизвестный статус бронирования: " + state);
         }
     }
+
+    private static EventType decisionEvent(BookingStatus status) {
+        return status == BookingStatus.APPROVED ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED;
+    }
+
+    private static EventDto bookingEvent(EventType type, Long bookingId, Long itemId) {
+        return EventDto.builder()
+                .type(type)
+                .bookingId(bookingId)
+                .itemId(itemId)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private Item findItemForBooking(Long itemId) {
+        Optional<Item> item = overlapCheckInApplication
+                ? itemRepository.findByIdForUpdate(itemId)
+                : itemRepository.findById(itemId);
+        return item.orElseThrow(() -> new NotFoundException("Вещь с ID " + itemId + " не найдена"));
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.event.model.EventType;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventDto {
+    private EventType type;
+    private Long bookingId;
+    private Long itemId;
+    private Long requestId;
+    private LocalDateTime created;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.event.model;
+
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    REQUEST_ANSWERED
+}
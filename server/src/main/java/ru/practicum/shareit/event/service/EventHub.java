@@ -0,0 +1,130 @@
+package ru.practicum.shareit.event.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.outbox.service.OutboxSubscriber;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process fan-out of relayed user events to open SSE connections.
+ * Every connection has its own bounded queue drained on a virtual thread, so a slow client never blocks
+ * the outbox relay; a client that falls behind by a full queue is disconnected and has to reconnect.
+ */
+@Slf4j
+@Component
+public class EventHub implements OutboxSubscriber {
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${shareit.events.queue-capacity:256}")
+    private int queueCapacity = 256;
+
+    @Value("${shareit.events.timeout-ms:1800000}")
+    private long timeoutMs = 1_800_000;
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(userId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        subscriptions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        try {
+            // flushes the response headers so proxies see the stream as open
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            unsubscribe(subscription);
+        }
+        log.debug("Подписка на события: userId={}, connections={}", userId, subscriberCount(userId));
+        return emitter;
+    }
+
+    @Override
+    public void onEvent(Long recipientId, EventDto event) {
+        Set<Subscription> userSubscriptions = subscriptions.get(recipientId);
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : userSubscriptions) {
+            if (subscription.queue.offer(event)) {
+                drain(subscription);
+            } else {
+                log.warn("Очередь событий переполнена, соединение закрыто: userId={}", recipientId);
+                unsubscribe(subscription);
+                subscription.emitter.complete();
+            }
+        }
+    }
+
+    int subscriberCount(Long userId) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        return userSubscriptions == null ? 0 : userSubscriptions.size();
+    }
+
+    private void drain(Subscription subscription) {
+        if (!subscription.draining.compareAndSet(false, true)) {
+            return;
+        }
+        sender.execute(() -> {
+            try {
+                EventDto event;
+                while ((event = subscription.queue.poll()) != null) {
+                    subscription.emitter.send(SseEmitter.event()
+                            .name(event.getType().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Соединение для событий закрыто: userId={}", subscription.userId);
+                unsubscribe(subscription);
+                subscription.queue.clear();
+            } finally {
+                subscription.draining.set(false);
+            }
+            if (!subscription.queue.isEmpty()) {
+                drain(subscription);
+            }
+        });
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (id, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.values().forEach(userSubscriptions ->
+                userSubscriptions.forEach(subscription -> subscription.emitter.complete()));
+        subscriptions.clear();
+        sender.shutdownNow();
+    }
+
+    private static final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<EventDto> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(Long userId, SseEmitter emitter, BlockingQueue<EventDto> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.event.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.outbox.service.OutboxSubscriber;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts relayed domain events by type, exposed as {@code shareit.events} in the metrics endpoint.
+ */
+@Component
+public class EventStatistics implements OutboxSubscriber {
+    private final Map<EventType, Counter> counters = new EnumMap<>(EventType.class);
+
+    public EventStatistics(MeterRegistry meterRegistry) {
+        for (EventType type : EventType.values()) {
+            counters.put(type, Counter.builder("shareit.events")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void onEvent(Long recipientId, EventDto event) {
+        counters.get(event.getType()).increment();
+    }
+}
@@ -1,6 +1,6 @@
 package ru.practicum.shareit.exception;
 
-public class AccessDeniedException extends RuntimeException {
+public class AccessDeniedException extends DomainException {
     public AccessDeniedException(String message) {
         super(message);
     }
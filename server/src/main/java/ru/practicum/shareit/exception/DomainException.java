@@ -0,0 +1,12 @@
+package ru.practicum.shareit.exception;
+
+/**
+ * Base of the expected business outcomes mapped to 4xx by {@link ErrorHandler}. They carry only a message:
+ * no stack trace is captured and suppression is disabled, so a rejected request costs no more than the
+ * response it produces.
+ */
+public abstract class DomainException extends RuntimeException {
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
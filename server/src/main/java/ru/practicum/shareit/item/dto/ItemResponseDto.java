@@ -21,4 +21,5 @@ public class ItemResponseDto {
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentDto> comments;
+    private Integer commentsCount;
 }
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model of an item: its last and next booking and its latest comments.
+ * {@code refreshAt} is the earliest moment the booking part becomes stale just because time passes
+ * (the next booking starts or a booking ends); rows past it are recomputed by a scheduled job.
+ */
+@Entity
+@Table(name = "item_summary")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    @Column(name = "comments_count", nullable = false)
+    private int commentsCount;
+
+    @Column(name = "latest_comments", nullable = false)
+    private String latestComments;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+    List<ItemSummary> findByOwnerId(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemSummary s WHERE s.itemId = :itemId")
+    Optional<ItemSummary> findByIdForUpdate(Long itemId);
+
+    @Query("SELECT s.itemId FROM ItemSummary s WHERE s.refreshAt <= :now ORDER BY s.refreshAt")
+    List<Long> findItemIdsToRefresh(LocalDateTime now, Limit limit);
+}
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 public interface ItemService {
     ItemDto createItem(Long userId, ItemDto itemDto);
 
+    List<ItemDto> createItems(Long userId, Iterator<ItemDto> items);
+
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
 
     ItemResponseDto getItem(Long userId, Long itemId);
@@ -20,4 +26,8 @@ public interface ItemService {
     void deleteItem(Long userId, Long itemId);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    CommentPageDto getComments(Long itemId, String cursor, int size);
+
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
 }
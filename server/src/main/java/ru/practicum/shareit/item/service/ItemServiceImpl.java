@@ -1,36 +1,55 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.event.model.EventType;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.FeedCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
@@ -39,10 +58,18 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityManager entityManager;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemSummaryService itemSummaryService;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int bulkChunkSize = 50;
 
     @Override
+    @Transactional
     public ItemDto createItem(Long userId, ItemDto itemDto) {
-        log.info("Создание вещи пользователем с id={}: {}", userId, itemDto);
+        log.info("Создание вещи: userId={}, requestId={}", userId, itemDto.getRequestId());
 
         User owner = userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -50,18 +77,7 @@ public class ItemServiceImpl implements ItemService {
                     return new NotFoundException("Пользователь не найден");
                 });
 
-        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
-            log.warn("Название вещи не может быть пустым");
-            throw new ValidationException("Название вещи не может быть пустым");
-        }
-        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
-            log.warn("Описание вещи не может быть пустым");
-            throw new ValidationException("Описание вещи не может быть пустым");
-        }
-        if (itemDto.getAvailable() == null) {
-            log.warn("Доступность вещи должна быть указана");
-            throw new ValidationException("Доступность вещи должна быть указана");
-        }
+        validateNewItem(itemDto);
 
         Item item = itemMapper.toItem(itemDto);
         item.setOwner(owner);
@@ -73,12 +89,113 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item savedItem = itemRepository.save(item);
+        itemSummaryService.create(savedItem);
+        if (item.getRequest() != null) {
+            itemRequestRepository.incrementResponseCount(item.getRequest().getId(), 1);
+            publishRequestAnswered(item.getRequest(), savedItem.getId());
+        }
+        log.info("Вещь создана: itemId={}, userId={}", savedItem.getId(), userId);
         return itemMapper.toItemDto(savedItem);
     }
 
     @Override
+    @Transactional
+    public List<ItemDto> createItems(Long userId, Iterator<ItemDto> items) {
+        log.info("Пакетное создание вещей: userId={}", userId);
+
+        if (!userRepository.existsById(userId)) {
+            log.warn("Пользователь с id={} не найден", userId);
+            throw new NotFoundException("Пользователь не найден");
+        }
+        User owner = userRepository.getReferenceById(userId);
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        Map<Long, Integer> responses = new HashMap<>();
+
+        List<ItemDto> created = new ArrayList<>();
+        List<ItemDto> chunk = new ArrayList<>(bulkChunkSize);
+        int index = 0;
+        while (items.hasNext()) {
+            ItemDto itemDto = items.next();
+            index++;
+            try {
+                validateNewItem(itemDto);
+            } catch (ValidationException e) {
+                throw new ValidationException("Вещь №" + index + ": " + e.getMessage());
+            }
+            chunk.add(itemDto);
+            if (itemDto.getRequestId() != null) {
+                responses.merge(itemDto.getRequestId(), 1, Integer::sum);
+            }
+            if (chunk.size() == bulkChunkSize) {
+                created.addAll(saveChunk(owner, chunk, requests));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created.addAll(saveChunk(owner, chunk, requests));
+        }
+        responses.forEach(itemRequestRepository::incrementResponseCount);
+
+        log.info("Вещи созданы: userId={}, count={}", userId, created.size());
+        return created;
+    }
+
+    private List<ItemDto> saveChunk(User owner, List<ItemDto> chunk, Map<Long, ItemRequest> requests) {
+        Set<Long> missing = new HashSet<>();
+        for (ItemDto itemDto : chunk) {
+            if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                missing.add(itemDto.getRequestId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (ItemRequest request : itemRequestRepository.findAllById(missing)) {
+                requests.put(request.getId(), request);
+            }
+            for (Long requestId : missing) {
+                if (!requests.containsKey(requestId)) {
+                    throw new NotFoundException("Запрос с ID " + requestId + " не найден");
+                }
+            }
+        }
+
+        List<Item> entities = new ArrayList<>(chunk.size());
+        for (ItemDto itemDto : chunk) {
+            Item item = itemMapper.toItem(itemDto);
+            item.setOwner(owner);
+            if (itemDto.getRequestId() != null) {
+                item.setRequest(requests.get(itemDto.getRequestId()));
+            }
+            entities.add(item);
+        }
+
+        List<Item> savedItems = itemRepository.saveAll(entities);
+        itemSummaryService.createAll(savedItems);
+        for (Item item : savedItems) {
+            if (item.getRequest() != null) {
+                publishRequestAnswered(item.getRequest(), item.getId());
+            }
+        }
+        List<ItemDto> saved = savedItems.stream()
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.toList());
+        itemRepository.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private void publishRequestAnswered(ItemRequest request, Long itemId) {
+        outboxPublisher.publish(request.getRequestor().getId(), EventDto.builder()
+                .type(EventType.REQUEST_ANSWERED)
+                .itemId(itemId)
+                .requestId(request.getId())
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    @Transactional
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        log.info("Обновление вещи с id={} пользователем с id={}", itemId, userId);
+        log.info("Обновление вещи: itemId={}, userId={}", itemId, userId);
 
         Item existing = itemRepository.findById(itemId)
                 .orElseThrow(() -> {
@@ -92,25 +209,25 @@ public class ItemServiceImpl implements ItemService {
         }
         if (itemDto.getName() != null && !itemDto.getName().isBlank()) {
             existing.setName(itemDto.getName());
-            log.info("Название вещи обновлено: {}", itemDto.getName());
+            log.debug("Название вещи обновлено: itemId={}", itemId);
         }
         if (itemDto.getDescription() != null && !itemDto.getDescription().isBlank()) {
             existing.setDescription(itemDto.getDescription());
-            log.info("Описание вещи обновлено: {}", itemDto.getDescription());
+            log.debug("Описание вещи обновлено: itemId={}", itemId);
         }
         if (itemDto.getAvailable() != null) {
             existing.setAvailable(itemDto.getAvailable());
-            log.info("Статус доступности обновлён: {}", itemDto.getAvailable());
+            log.debug("Статус доступности обновлён: itemId={}, available={}", itemId, itemDto.getAvailable());
         }
 
         Item saved = itemRepository.save(existing);
-        log.info("Вещь обновлена: {}", saved);
+        log.info("Вещь обновлена: itemId={}", saved.getId());
         return itemMapper.toItemDto(saved);
     }
 
     @Override
     public ItemResponseDto getItem(Long userId, Long itemId) {
-        log.info("Получение вещи с id={} для пользователя с id={}", itemId, userId);
+        log.debug("Получение вещи: itemId={}, userId={}", itemId, userId);
 
         if (userId <= 0 || itemId <= 0) {
             log.warn("Некорректный id пользователя или вещи: userId={}, itemId={}", userId, itemId);
@@ -123,49 +240,15 @@ public class ItemServiceImpl implements ItemService {
                     return new NotFoundException("вещь c id " + itemId + " не существует");
                 });
 
-        Booking lastBooking = bookingRepository.findPastOwnerBookings(item.getId(), userId, LocalDateTime.now())
-                .stream()
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
-
-        Booking nextBooking = bookingRepository.findFutureOwnerBookings(item.getId(), userId, LocalDateTime.now())
-                .stream()
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
-
-        List<CommentDto> commentsDto = commentRepository
-                .findByItem_Id(itemId, Sort.by(Sort.Direction.DESC, "created"))
-                .stream()
-                .map(commentMapper::toCommentDto)
-                .collect(Collectors.toList());
-
-        log.info("Вещь с id={} успешно получена", itemId);
+        ItemSummary summary = itemSummaryService.get(item);
+        log.debug("Вещь получена: itemId={}", itemId);
 
-        return ItemResponseDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
-                .lastBooking(lastBooking != null
-                        ? BookingShortDto.builder()
-                        .id(lastBooking.getId())
-                        .bookerId(lastBooking.getBooker().getId())
-                        .build()
-                        : null)
-                .nextBooking(nextBooking != null
-                        ? BookingShortDto.builder()
-                        .id(nextBooking.getId())
-                        .bookerId(nextBooking.getBooker().getId())
-                        .build()
-                        : null)
-                .comments(commentsDto)
-                .build();
+        return toItemResponse(item, summary, item.getOwner().getId().equals(userId));
     }
 
     @Override
     public List<ItemResponseDto> getItemsByUser(Long userId) {
-        log.info("Получение всех вещей пользователя с ID={}", userId);
+        log.debug("Получение вещей владельца: userId={}", userId);
 
         userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -176,18 +259,39 @@ public class ItemServiceImpl implements ItemService {
         List<Item> items = itemRepository.findByOwner_Id(userId,
                 Sort.by(Sort.Direction.ASC, "id"));
 
-        log.info("Найдено {} вещей у пользователя с ID={}", items.size(), userId);
+        log.debug("Найдены вещи владельца: userId={}, count={}", userId, items.size());
+        Map<Long, ItemSummary> summaries = itemSummaryService.getByOwner(userId, items);
         return items.stream()
-                .map(item -> getItem(userId, item.getId()))
+                .map(item -> toItemResponse(item, summaries.get(item.getId()), true))
                 .collect(Collectors.toList());
     }
 
+    private ItemResponseDto toItemResponse(Item item, ItemSummary summary, boolean owner) {
+        return ItemResponseDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .lastBooking(owner ? toBookingShort(summary.getLastBookingId(), summary.getLastBookerId()) : null)
+                .nextBooking(owner ? toBookingShort(summary.getNextBookingId(), summary.getNextBookerId()) : null)
+                .comments(itemSummaryService.latestComments(summary))
+                .commentsCount(summary.getCommentsCount())
+                .build();
+    }
+
+    private static BookingShortDto toBookingShort(Long bookingId, Long bookerId) {
+        return bookingId != null
+                ? BookingShortDto.builder().id(bookingId).bookerId(bookerId).build()
+                : null;
+    }
+
     @Override
     public List<ItemDto> searchItems(String text) {
-        log.info("Поиск вещей по запросу: '{}'", text);
+        log.debug("Поиск вещей: text={}", text);
 
         if (text == null || text.isBlank()) {
-            log.info("Пустой запрос для поиска вещей — возвращён пустой список");
+            log.debug("Пустой запрос для поиска вещей — возвращён пустой список");
             return List.of();
         }
 
@@ -197,13 +301,14 @@ public class ItemServiceImpl implements ItemService {
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
 
-        log.info("Поиск вещей вернул {} результатов", result.size());
+        log.debug("Поиск вещей завершён: count={}", result.size());
         return result;
     }
 
     @Override
+    @Transactional
     public void deleteItem(Long userId, Long itemId) {
-        log.info("Удаление вещи с ID={} пользователем с id={}", itemId, userId);
+        log.info("Удаление вещи: itemId={}, userId={}", itemId, userId);
 
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> {
@@ -217,12 +322,17 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.delete(item);
-        log.info("Вещь с ID={} успешно удалена", itemId);
+        if (item.getRequest() != null) {
+            itemRequestRepository.incrementResponseCount(item.getRequest().getId(), -1);
+        }
+        bookingIntervalIndex.evict(itemId);
+        log.info("Вещь удалена: itemId={}", itemId);
     }
 
     @Override
+    @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
-        log.info("Добавление комментария пользователем с ID={} к вещи с ID={}", userId, itemId);
+        log.info("Добавление комментария: itemId={}, userId={}", itemId, userId);
 
         if (commentDto.getText() == null || commentDto.getText().isBlank()) {
             log.warn("Комментарий не может быть пустым");
@@ -253,11 +363,97 @@ public class ItemServiceImpl implements ItemService {
         comment.setText(commentDto.getText());
         comment.setItem(item);
         comment.setAuthor(user);
-        comment.setCreated(LocalDateTime.now());
+        comment.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
         Comment saved = commentRepository.save(comment);
+        CommentDto savedDto = commentMapper.toCommentDto(saved);
+        itemSummaryService.addComment(itemId, savedDto);
 
-        log.info("Комментарий успешно добавлен: {}", saved);
-        return commentMapper.toCommentDto(saved);
+        log.info("Комментарий добавлен: commentId={}, itemId={}", saved.getId(), itemId);
+        return savedDto;
+    }
+
+    @Override
+    public CommentPageDto getComments(Long itemId, String cursor, int size) {
+        log.debug("Получение комментариев: itemId={}, cursor={}, size={}", itemId, cursor, size);
+
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("Вещь с ID={} не найдена", itemId);
+            throw new NotFoundException("Вещь не найдена");
+        }
+
+        // one extra row tells whether there is a next page without a count query
+        Limit limit = Limit.of(size + 1);
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findByItem_IdOrderByCreatedDescIdDesc(itemId, limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            comments = commentRepository.findPageAfter(itemId, after.created(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            Comment last = comments.get(size - 1);
+            nextCursor = new FeedCursor(last.getCreated(), last.getId()).encode();
+        }
+
+        return new CommentPageDto(comments.stream()
+                .map(commentMapper::toCommentDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    @Override
+    @Transactional
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Получение занятости вещи: itemId={}, userId={}, from={}, to={}", itemId, userId, from, to);
+
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new ValidationException("Конец периода должен быть позже начала");
+        }
+        if (!bookingIntervalIndex.isLoaded(itemId) && !itemRepository.existsById(itemId)) {
+            log.warn("Вещь с id={} не найдена", itemId);
+            throw new NotFoundException("Вещь не найдена");
+        }
+
+        List<AvailabilityIntervalDto> busy = bookingIntervalIndex.findBusy(itemId, from, to);
+        List<AvailabilityIntervalDto> free = new ArrayList<>(busy.size() + 1);
+        LocalDateTime cursor = from;
+        for (AvailabilityIntervalDto interval : busy) {
+            if (interval.getStart().isAfter(cursor)) {
+                free.add(new AvailabilityIntervalDto(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(cursor, to));
+        }
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    private void validateNewItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            log.warn("Название вещи не может быть пустым");
+            throw new ValidationException("Название вещи не может быть пустым");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            log.warn("Описание вещи не может быть пустым");
+            throw new ValidationException("Описание вещи не может быть пустым");
+        }
+        if (itemDto.getAvailable() == null) {
+            log.warn("Доступность вещи должна быть указана");
+            throw new ValidationException("Доступность вещи должна быть указана");
+        }
     }
 }
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link ItemSummary} rows: bookings are recomputed per item when a booking is created and when
+ * time moves past {@code refreshAt}, comments are prepended as they are added.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemSummaryService {
+    private static final TypeReference<List<CommentDto>> COMMENTS_TYPE = new TypeReference<>() {
+    };
+
+    private final ItemSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final CommentMapper commentMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.items.summary.latest-comments:10}")
+    private int latestCommentsLimit = 10;
+
+    @Value("${shareit.items.summary.refresh-batch-size:500}")
+    private int refreshBatchSize = 500;
+
+    @Transactional
+    public void create(Item item) {
+        summaryRepository.save(emptySummary(item));
+    }
+
+    @Transactional
+    public void createAll(Collection<Item> items) {
+        summaryRepository.saveAll(items.stream().map(this::emptySummary).toList());
+    }
+
+    @Transactional
+    public void refreshBookings(Long itemId) {
+        summaryRepository.findByIdForUpdate(itemId)
+                .ifPresent(summary -> applyBookings(summary, LocalDateTime.now()));
+    }
+
+    @Transactional
+    public void addComment(Long itemId, CommentDto comment) {
+        summaryRepository.findByIdForUpdate(itemId).ifPresent(summary -> {
+            List<CommentDto> latest = new ArrayList<>(latestComments(summary));
+            latest.add(0, comment);
+            if (latest.size() > latestCommentsLimit) {
+                latest = latest.subList(0, latestCommentsLimit);
+            }
+            summary.setLatestComments(writeComments(latest));
+            summary.setCommentsCount(summary.getCommentsCount() + 1);
+        });
+    }
+
+    public ItemSummary get(Item item) {
+        return summaryRepository.findById(item.getId()).orElseGet(() -> build(item));
+    }
+
+    public Map<Long, ItemSummary> getByOwner(Long ownerId, List<Item> items) {
+        Map<Long, ItemSummary> summaries = summaryRepository.findByOwnerId(ownerId).stream()
+                .collect(Collectors.toMap(ItemSummary::getItemId, Function.identity()));
+        for (Item item : items) {
+            summaries.computeIfAbsent(item.getId(), id -> build(item));
+        }
+        return summaries;
+    }
+
+    public List<CommentDto> latestComments(ItemSummary summary) {
+        try {
+            return objectMapper.readValue(summary.getLatestComments(), COMMENTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Некорректные комментарии в сводке вещи " + summary.getItemId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.summary.refresh-interval-ms:60000}")
+    @Transactional
+    public void refreshExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = summaryRepository.findItemIdsToRefresh(now, Limit.of(refreshBatchSize));
+        for (Long itemId : itemIds) {
+            summaryRepository.findByIdForUpdate(itemId).ifPresent(summary -> applyBookings(summary, now));
+        }
+        if (!itemIds.isEmpty()) {
+            log.debug("Сводки вещей обновлены: count={}", itemIds.size());
+        }
+    }
+
+    /**
+     * Builds a summary from the source tables for an item that has no stored row yet.
+     */
+    private ItemSummary build(Item item) {
+        ItemSummary summary = emptySummary(item);
+        applyBookings(summary, LocalDateTime.now());
+        summary.setCommentsCount(commentRepository.countByItem_Id(item.getId()));
+        summary.setLatestComments(writeComments(commentRepository
+                .findByItem_IdOrderByCreatedDescIdDesc(item.getId(), Limit.of(latestCommentsLimit)).stream()
+                .map(commentMapper::toCommentDto)
+                .toList()));
+        return summary;
+    }
+
+    private void applyBookings(ItemSummary summary, LocalDateTime now) {
+        Long itemId = summary.getItemId();
+        Optional<Booking> last = bookingRepository.findFirstByItem_IdAndEndBeforeOrderByEndDesc(itemId, now);
+        Optional<Booking> next = bookingRepository.findFirstByItem_IdAndStartAfterOrderByStartAsc(itemId, now);
+        Optional<Booking> nextEnding = bookingRepository.findFirstByItem_IdAndEndAfterOrderByEndAsc(itemId, now);
+
+        summary.setLastBookingId(last.map(Booking::getId).orElse(null));
+        summary.setLastBookerId(last.map(booking -> booking.getBooker().getId()).orElse(null));
+        summary.setNextBookingId(next.map(Booking::getId).orElse(null));
+        summary.setNextBookerId(next.map(booking -> booking.getBooker().getId()).orElse(null));
+
+        LocalDateTime refreshAt = next.map(Booking::getStart).orElse(null);
+        if (nextEnding.isPresent() && (refreshAt == null || nextEnding.get().getEnd().isBefore(refreshAt))) {
+            refreshAt = nextEnding.get().getEnd();
+        }
+        summary.setRefreshAt(refreshAt);
+    }
+
+    private ItemSummary emptySummary(Item item) {
+        ItemSummary summary = new ItemSummary();
+        summary.setItemId(item.getId());
+        summary.setOwnerId(item.getOwner().getId());
+        summary.setLatestComments(writeComments(List.of()));
+        return summary;
+    }
+
+    private String writeComments(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать комментарии", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events. Only the lease holder relays, but a relay whose lease expired mid-batch may still
+     * be running, so rows it holds are skipped rather than waited for.
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(int limit);
+
+    /**
+     * Takes or extends the relay lease; returns 0 while another owner holds an unexpired one.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_relay_lease SET owner = :owner, expires_at = :expiresAt " +
+            "WHERE id = 1 AND (owner IS NULL OR owner = :owner OR expires_at < :now)", nativeQuery = true)
+    int acquireLease(String owner, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_relay_lease SET owner = NULL WHERE id = 1 AND owner = :owner", nativeQuery = true)
+    int releaseLease(String owner);
+}
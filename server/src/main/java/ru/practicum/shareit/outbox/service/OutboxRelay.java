@@ -0,0 +1,201 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves committed outbox events to in-process subscribers on a single virtual thread.
+ * <p>
+ * Subscribers live in this process ({@link ru.practicum.shareit.event.service.EventHub} holds only the SSE
+ * connections opened here), so exactly one instance may relay: the relay holds a lease row and skips polling
+ * while another live owner holds it. A second instance therefore never steals events, but its own SSE clients
+ * receive nothing; {@code /events} must be served by the lease holder.
+ * <p>
+ * A row is deleted once every subscriber took it. If any subscriber fails, the row stays and the whole event is
+ * offered again on the next poll, up to {@code shareit.outbox.max-attempts}; after that it is logged and dropped.
+ * Delivery is therefore at-least-once within that bound, and subscribers see repeats after a partial failure.
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSubscriber> subscribers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${shareit.outbox.poll-interval-ms:500}")
+    private long pollIntervalMs = 500;
+
+    @Value("${shareit.outbox.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${shareit.outbox.lease-ttl-ms:10000}")
+    private long leaseTtlMs = 10_000;
+
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private volatile boolean leaseHeld;
+
+    public OutboxRelay(OutboxRepository outboxRepository, List<OutboxSubscriber> subscribers,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.subscribers = subscribers;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofVirtual().name("outbox-relay").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (leaseHeld) {
+            // lets another instance take over without waiting for the lease to expire
+            try {
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseLease(instanceId));
+            } catch (RuntimeException e) {
+                log.warn("Не удалось освободить аренду outbox: instance={}", instanceId, e);
+            }
+            leaseHeld = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Called after a transaction with new events commits, so they are relayed without waiting for the next poll.
+     */
+    public void wakeUp() {
+        Thread current = worker;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            int relayed;
+            try {
+                relayed = relayBatch();
+            } catch (RuntimeException e) {
+                log.error("Ошибка при передаче событий из outbox", e);
+                relayed = 0;
+            }
+            if (relayed < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            }
+        }
+    }
+
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            if (!acquireLease()) {
+                return 0;
+            }
+            List<OutboxEvent> events = outboxRepository.lockNextBatch(batchSize);
+            List<OutboxEvent> done = new ArrayList<>(events.size());
+            List<OutboxEvent> retry = new ArrayList<>();
+            for (OutboxEvent event : events) {
+                if (deliver(event)) {
+                    done.add(event);
+                } else if (event.getAttempts() + 1 >= maxAttempts) {
+                    log.error("Событие outbox отброшено после {} попыток: id={}, type={}",
+                            maxAttempts, event.getId(), event.getType());
+                    done.add(event);
+                } else {
+                    event.setAttempts(event.getAttempts() + 1);
+                    retry.add(event);
+                }
+            }
+            outboxRepository.deleteAllInBatch(done);
+            if (!retry.isEmpty()) {
+                outboxRepository.saveAll(retry);
+            }
+            return done.size();
+        });
+        if (relayed != null && relayed > 0) {
+            log.debug("События outbox переданы: count={}", relayed);
+        }
+        return relayed == null ? 0 : relayed;
+    }
+
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean acquired = outboxRepository.acquireLease(instanceId, now, now.plusNanos(
+                TimeUnit.MILLISECONDS.toNanos(leaseTtlMs))) > 0;
+        if (acquired != leaseHeld) {
+            if (acquired) {
+                log.info("Аренда outbox получена: instance={}", instanceId);
+            } else {
+                log.warn("Outbox передаёт другой экземпляр, SSE-клиенты этого экземпляра не получат событий: "
+                        + "instance={}", instanceId);
+            }
+            leaseHeld = acquired;
+        }
+        return acquired;
+    }
+
+    /**
+     * Returns {@code false} if some subscriber failed and the event should be offered again.
+     */
+    private boolean deliver(OutboxEvent event) {
+        EventDto payload;
+        try {
+            payload = objectMapper.readValue(event.getPayload(), EventDto.class);
+        } catch (JsonProcessingException e) {
+            // a retry cannot fix the payload
+            log.error("Некорректное событие outbox пропущено: id={}, type={}", event.getId(), event.getType(), e);
+            return true;
+        }
+        boolean delivered = true;
+        for (OutboxSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvent(event.getRecipientId(), payload);
+            } catch (RuntimeException e) {
+                // one failing consumer must not hold back the others or the whole outbox
+                log.warn("Подписчик {} не обработал событие outbox: id={}, type={}, attempt={}",
+                        subscriber.getClass().getSimpleName(), event.getId(), event.getType(),
+                        event.getAttempts() + 1, e);
+                delivered = false;
+            }
+        }
+        return delivered;
+    }
+}
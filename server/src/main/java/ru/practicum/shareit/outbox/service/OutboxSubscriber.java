@@ -0,0 +1,10 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.event.dto.EventDto;
+
+/**
+ * In-process consumer of relayed outbox events. Delivery is at-least-once, so handlers must tolerate repeats.
+ */
+public interface OutboxSubscriber {
+    void onEvent(Long recipientId, EventDto event);
+}
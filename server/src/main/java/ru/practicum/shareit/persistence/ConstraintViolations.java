@@ -0,0 +1,46 @@
+package ru.practicum.shareit.persistence;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells which database constraint a {@link DataIntegrityViolationException} came from, so a service maps only
+ * the violation it expects to a business error and lets any other one (a foreign key, a NOT NULL) propagate.
+ */
+public final class ConstraintViolations {
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Checks the constraint name Hibernate extracted from the driver error and, for dialects that do not
+     * extract it, the messages along the cause chain. Names are compared ignoring case: H2 reports them
+     * upper-cased, Postgres as declared.
+     */
+    public static boolean isViolationOf(DataIntegrityViolationException e, String... constraintNames) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && mentions(violation.getConstraintName(), constraintNames)) {
+                return true;
+            }
+            if (mentions(cause.getMessage(), constraintNames)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mentions(String text, String... constraintNames) {
+        if (text == null) {
+            return false;
+        }
+        String lowerText = text.toLowerCase(Locale.ROOT);
+        for (String constraintName : constraintNames) {
+            if (lowerText.contains(constraintName.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
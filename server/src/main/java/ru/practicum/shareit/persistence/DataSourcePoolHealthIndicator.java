@@ -0,0 +1,56 @@
+package ru.practicum.shareit.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports usage of every Hikari pool. The status is {@code SATURATED} when a pool has threads waiting for a
+ * connection or its active share reaches {@code shareit.db.pool.saturation-threshold}.
+ */
+public class DataSourcePoolHealthIndicator extends AbstractHealthIndicator {
+    public static final Status SATURATED = new Status("SATURATED", "Пул соединений с БД исчерпан");
+
+    private final Collection<HikariDataSource> dataSources;
+    private final double saturationThreshold;
+
+    public DataSourcePoolHealthIndicator(Collection<HikariDataSource> dataSources, double saturationThreshold) {
+        super("Не удалось получить состояние пула соединений");
+        this.dataSources = dataSources;
+        this.saturationThreshold = saturationThreshold;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        boolean saturated = false;
+        for (HikariDataSource dataSource : dataSources) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                continue;
+            }
+            int max = dataSource.getMaximumPoolSize();
+            int active = pool.getActiveConnections();
+            int awaiting = pool.getThreadsAwaitingConnection();
+            double usage = max > 0 ? (double) active / max : 0;
+            boolean poolSaturated = awaiting > 0 || usage >= saturationThreshold;
+            saturated |= poolSaturated;
+
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("active", active);
+            details.put("idle", pool.getIdleConnections());
+            details.put("total", pool.getTotalConnections());
+            details.put("max", max);
+            details.put("threadsAwaiting", awaiting);
+            details.put("usage", Math.round(usage * 100) / 100.0);
+            details.put("saturated", poolSaturated);
+            builder.withDetail(dataSource.getPoolName(), details);
+        }
+        builder.status(saturated ? SATURATED : Status.UP);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(DbPoolProperties.class)
+public class DbPoolConfig {
+
+    @Bean
+    public static HikariPoolCustomizer hikariPoolCustomizer(Environment environment) {
+        DbPoolProperties properties = Binder.get(environment)
+                .bind(DbPoolProperties.PREFIX, DbPoolProperties.class)
+                .orElseGet(DbPoolProperties::new);
+        return new HikariPoolCustomizer(properties);
+    }
+
+    @Bean
+    public DataSourcePoolHealthIndicator dbPoolHealthIndicator(ObjectProvider<HikariDataSource> dataSources,
+                                                               DbPoolProperties properties) {
+        return new DataSourcePoolHealthIndicator(dataSources.orderedStream().toList(),
+                properties.getSaturationThreshold());
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.persistence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = DbPoolProperties.PREFIX)
+public class DbPoolProperties {
+    public static final String PREFIX = "shareit.db.pool";
+
+    /**
+     * Pool settings override {@code spring.datasource.hikari.*} only when set, so they are left unset by default.
+     */
+    private Integer maximumPoolSize;
+    private Integer minimumIdle;
+    private Duration connectionTimeout;
+    private Duration maxLifetime;
+    private int prepareThreshold = 5;
+    private int preparedStatementCacheQueries = 256;
+    private boolean reWriteBatchedInserts = true;
+    private double saturationThreshold = 0.9;
+}
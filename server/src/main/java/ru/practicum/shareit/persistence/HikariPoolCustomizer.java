@@ -0,0 +1,51 @@
+package ru.practicum.shareit.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.Properties;
+
+/**
+ * Applies {@code shareit.db.pool.*} to every Hikari pool of the server before it is started. Only the pool
+ * settings that are set are applied, so a pool configured through {@code spring.datasource.hikari.*} keeps its
+ * values unless they are deliberately overridden here. Statement caching and batch rewriting are pgjdbc
+ * connection properties: they are only set for PostgreSQL URLs and never replace a connection property the pool
+ * already has.
+ */
+@RequiredArgsConstructor
+public class HikariPoolCustomizer implements BeanPostProcessor {
+    private static final String POSTGRES_URL_PREFIX = "jdbc:postgresql:";
+
+    private final DbPoolProperties properties;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            customize(dataSource);
+        }
+        return bean;
+    }
+
+    void customize(HikariDataSource dataSource) {
+        if (properties.getMaximumPoolSize() != null) {
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        }
+        if (properties.getMinimumIdle() != null) {
+            dataSource.setMinimumIdle(Math.min(properties.getMinimumIdle(), dataSource.getMaximumPoolSize()));
+        }
+        if (properties.getConnectionTimeout() != null) {
+            dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        }
+        if (properties.getMaxLifetime() != null) {
+            dataSource.setMaxLifetime(properties.getMaxLifetime().toMillis());
+        }
+        if (dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith(POSTGRES_URL_PREFIX)) {
+            Properties driverProperties = dataSource.getDataSourceProperties();
+            driverProperties.putIfAbsent("prepareThreshold", properties.getPrepareThreshold());
+            driverProperties.putIfAbsent("preparedStatementCacheQueries",
+                    properties.getPreparedStatementCacheQueries());
+            driverProperties.putIfAbsent("reWriteBatchedInserts", properties.isReWriteBatchedInserts());
+        }
+    }
+}
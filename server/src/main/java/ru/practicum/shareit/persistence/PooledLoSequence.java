@@ -0,0 +1,24 @@
+package ru.practicum.shareit.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the annotated id from the named database sequence with {@link PooledLoSequenceGenerator}.
+ * Replaces {@code @GeneratedValue} on the id.
+ */
+@IdGeneratorType(PooledLoSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledLoSequence {
+    /**
+     * Name of the sequence in schema.sql.
+     */
+    String value();
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically measures replication lag of the replica. While the lag is above the allowed maximum or the
+ * replica cannot be reached, read-only transactions are served by the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private volatile boolean replicaUsable = true;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.db.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean usable;
+        try {
+            Double lagSeconds = replica.queryForObject(lagQuery, Double.class);
+            usable = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            if (!usable) {
+                log.warn("Отставание реплики превышает допустимое: lagSeconds={}, maxLag={}", lagSeconds, maxLag);
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            log.warn("Не удалось измерить отставание реплики: {}", e.getMessage());
+        }
+        if (usable && !replicaUsable) {
+            log.info("Реплика снова используется для чтения");
+        }
+        replicaUsable = usable;
+    }
+
+    void markUnavailable() {
+        replicaUsable = false;
+    }
+}
@@ -3,8 +3,10 @@ package ru.practicum.shareit.request.controller;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
@@ -14,6 +16,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 @RequestMapping("/requests")
 public class ItemRequestController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -29,10 +33,20 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                               @RequestParam(defaultValue = "10") @Positive int size) {
-        return itemRequestService.getOthersRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                               @RequestParam(defaultValue = "10") @Positive int size,
+                                                               @RequestParam(required = false) String cursor) {
+        if (from > 0 && cursor == null) {
+            // offset paging is kept for old clients; new ones follow X-Next-Cursor
+            return ResponseEntity.ok(itemRequestService.getOthersRequests(userId, from, size));
+        }
+        ItemRequestFeedDto feed = itemRequestService.getFeed(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (feed.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, feed.getNextCursor());
+        }
+        return response.body(feed.getRequests());
     }
 
     @GetMapping("/{requestId}")
@@ -12,5 +12,6 @@ public class ItemRequestDto {
     private String description;
     private Long requestorId;
     private LocalDateTime created;
+    private Integer responseCount;
     private List<ItemShortDto> items;
 }
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.persistence.PooledLoSequence;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -17,16 +19,20 @@ import java.time.LocalDateTime;
 @Builder
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledLoSequence("requests_seq")
     private Long id;
 
     @Column(nullable = false)
     private String description;
 
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id", nullable = false)
     private User requestor;
 
     @Column(nullable = false)
     private LocalDateTime created;
+
+    @Column(name = "response_count", nullable = false, updatable = false)
+    private int responseCount;
 }
@@ -1,15 +1,30 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Long userId);
 
-    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :userId ORDER BY r.created DESC")
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :userId ORDER BY r.created DESC, r.id DESC")
     List<ItemRequest> findAllExcludingUser(Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :userId ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findFeed(Long userId, Limit limit);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :userId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findFeedAfter(Long userId, LocalDateTime created, Long id, Limit limit);
+
+    @Modifying
+    @Query("UPDATE ItemRequest r SET r.responseCount = r.responseCount + :delta WHERE r.id = :requestId")
+    int incrementResponseCount(Long requestId, int delta);
 }
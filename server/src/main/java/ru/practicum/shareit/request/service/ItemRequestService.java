@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
 
 import java.util.List;
 
@@ -11,5 +12,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getOthersRequests(Long userId, int from, int size);
 
+    ItemRequestFeedDto getFeed(Long userId, String cursor, int size);
+
     ItemRequestDto getRequestById(Long userId, Long requestId);
 }
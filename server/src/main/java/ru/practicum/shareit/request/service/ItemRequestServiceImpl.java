@@ -2,27 +2,35 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository requestRepository;
@@ -31,9 +39,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemMapper itemMapper;
     private final ItemRequestMapper requestMapper;
 
+    @Value("${shareit.requests.feed.max-size:100}")
+    private int feedMaxSize = 100;
+
     @Override
+    @Transactional
     public ItemRequestDto addRequest(Long userId, String description) {
-        log.info("Создание запроса вещи пользователем ID={}, описание={}", userId, description);
+        log.info("Создание запроса вещи: userId={}", userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -44,17 +56,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest request = new ItemRequest();
         request.setDescription(description);
         request.setRequestor(user);
-        request.setCreated(LocalDateTime.now());
+        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
         ItemRequest savedRequest = requestRepository.save(request);
-        log.info("Запрос ID={} успешно создан", savedRequest.getId());
+        log.info("Запрос создан: requestId={}", savedRequest.getId());
 
         return requestMapper.toDto(savedRequest);
     }
 
     @Override
     public List<ItemRequestDto> getOwnRequests(Long userId) {
-        log.info("Получение собственных запросов пользователя ID={}", userId);
+        log.debug("Получение собственных запросов: userId={}", userId);
 
         userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -63,16 +75,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 });
 
         List<ItemRequest> requests = requestRepository.findByRequestorIdOrderByCreatedDesc(userId);
-        log.info("Найдено {} собственных запросов для пользователя ID={}", requests.size(), userId);
+        log.debug("Найдены собственные запросы: userId={}, count={}", userId, requests.size());
 
-        return requests.stream()
-                .map(this::toDtoWithItems)
-                .collect(Collectors.toList());
+        return toDtosWithItems(requests);
     }
 
     @Override
     public List<ItemRequestDto> getOthersRequests(Long userId, int from, int size) {
-        log.info("Получение запросов других пользователей. Запрашивающий ID={}, from={}, size={}", userId, from, size);
+        log.debug("Получение запросов других пользователей: userId={}, from={}, size={}", userId, from, size);
 
         userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -82,16 +92,52 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         Pageable pageable = PageRequest.of(from / size, size);
         List<ItemRequest> requests = requestRepository.findAllExcludingUser(userId, pageable);
-        log.info("Найдено {} запросов других пользователей для пользователя ID={}", requests.size(), userId);
+        log.debug("Найдены запросы других пользователей: userId={}, count={}", userId, requests.size());
 
-        return requests.stream()
-                .map(this::toDtoWithItems)
-                .collect(Collectors.toList());
+        return toDtosWithItems(requests);
+    }
+
+    @Override
+    public ItemRequestFeedDto getFeed(Long userId, String cursor, int size) {
+        log.debug("Получение ленты запросов: userId={}, cursor={}, size={}", userId, cursor, size);
+
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        if (size > feedMaxSize) {
+            throw new ValidationException("Размер страницы не может быть больше " + feedMaxSize);
+        }
+        userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.warn("Пользователь с ID={} не найден при получении ленты запросов", userId);
+                    return new NotFoundException("Пользователь не найден");
+                });
+
+        // one extra row tells whether there is a next page without a count query
+        Limit limit = Limit.of(size + 1);
+        List<ItemRequest> requests;
+        if (cursor == null || cursor.isBlank()) {
+            requests = requestRepository.findFeed(userId, limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            requests = requestRepository.findFeedAfter(userId, after.created(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (requests.size() > size) {
+            requests = requests.subList(0, size);
+            ItemRequest last = requests.get(size - 1);
+            nextCursor = new FeedCursor(last.getCreated(), last.getId()).encode();
+        }
+        log.debug("Лента запросов получена: userId={}, count={}, hasNext={}", userId, requests.size(),
+                nextCursor != null);
+
+        return new ItemRequestFeedDto(toDtosWithItems(requests), nextCursor);
     }
 
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        log.info("Получение запроса ID={} пользователем ID={}", requestId, userId);
+        log.debug("Получение запроса: requestId={}, userId={}", requestId, userId);
 
         userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -109,14 +155,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .map(itemMapper::toItemShortDto)
                 .collect(Collectors.toList());
 
-        log.info("Запрос ID={} успешно получен", requestId);
+        log.debug("Запрос получен: requestId={}", requestId);
         return requestMapper.toDtoWithItems(request, itemDtos);
     }
 
-    private ItemRequestDto toDtoWithItems(ItemRequest request) {
-        List<ItemShortDto> items = itemRepository.findByRequest_Id(request.getId()).stream()
-                .map(itemMapper::toItemShortDto)
+    private List<ItemRequestDto> toDtosWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemShortDto>> itemsByRequest = itemRepository.findByRequest_IdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .toList()).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemShortDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> requestMapper.toDtoWithItems(request,
+                        itemsByRequest.getOrDefault(request.getId(), List.of())))
                 .collect(Collectors.toList());
-        return requestMapper.toDtoWithItems(request, items);
     }
 }
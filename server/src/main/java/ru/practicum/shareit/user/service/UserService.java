@@ -1,8 +1,9 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto createUser(UserDto userDto);
@@ -11,7 +12,9 @@ public interface UserService {
 
     UserDto getUser(Long userId);
 
-    List<UserDto> getAllUsers();
+    UserPageDto getUsers(Long afterId, int size);
+
+    void exportUsers(Long requesterId, Consumer<UserDto> sink);
 
     void deleteUser(Long userId);
 }
@@ -2,48 +2,75 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.persistence.ConstraintViolations;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    // Postgres enforces the expression index, H2 the constraint on a case-insensitive column
+    private static final String[] EMAIL_CONSTRAINTS = {"ux_users_email_lower", "UQ_USER_EMAIL"};
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
-        log.info("Создание пользователя: {}", userDto);
-
-        if (userRepository.existsByEmailIgnoreCase(userDto.getEmail())) {
+        log.info("Создание пользователя");
+
+        // the case-insensitive unique index decides; checking first would cost a query and still race
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(userMapper.toUser(userDto));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, EMAIL_CONSTRAINTS)) {
+                throw e;
+            }
+            log.info("Email уже занят при создании пользователя");
             throw new ConflictException("Пользователь с таким email уже существует");
         }
-
-        User user = userMapper.toUser(userDto);
-        User savedUser = userRepository.save(user);
+        log.info("Пользователь создан: userId={}", savedUser.getId());
 
         return userMapper.toUserDto(savedUser);
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(Long userId, UserDto userDto) {
-        log.info("Обновление пользователя ID={} : {}", userId, userDto);
+        log.info("Обновление пользователя: userId={}", userId);
 
         User existing = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        if (userDto.getEmail() != null && !userDto.getEmail().equalsIgnoreCase(existing.getEmail())) {
-            if (userRepository.existsByEmailIgnoreCase(userDto.getEmail())) {
-                throw new ConflictException("Email уже используется");
-            }
+        boolean emailChanged = userDto.getEmail() != null && !userDto.getEmail().equalsIgnoreCase(existing.getEmail());
+        if (emailChanged) {
             existing.setEmail(userDto.getEmail());
         }
 
@@ -51,12 +78,23 @@ public class UserServiceImpl implements UserService {
             existing.setName(userDto.getName());
         }
 
-        return userMapper.toUserDto(userRepository.save(existing));
+        if (!emailChanged) {
+            return userMapper.toUserDto(userRepository.save(existing));
+        }
+        try {
+            return userMapper.toUserDto(userRepository.saveAndFlush(existing));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, EMAIL_CONSTRAINTS)) {
+                throw e;
+            }
+            log.info("Email уже занят при обновлении пользователя: userId={}", userId);
+            throw new ConflictException("Email уже используется");
+        }
     }
 
     @Override
     public UserDto getUser(Long userId) {
-        log.info("Получение пользователя по ID={}", userId);
+        log.debug("Получение пользователя: userId={}", userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -68,27 +106,60 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        log.info("Получение списка всех пользователей");
+    public UserPageDto getUsers(Long afterId, int size) {
+        log.debug("Получение страницы пользователей: afterId={}, size={}", afterId, size);
+
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
 
-        List<User> users = userRepository.findAll();
+        // one extra row tells whether there is a next page without a count query
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L,
+                Limit.of(size + 1));
+        Long nextAfterId = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextAfterId = users.get(size - 1).getId();
+        }
 
-        log.info("Найдено {} пользователей", users.size());
+        log.debug("Найдены пользователи: count={}, nextAfterId={}", users.size(), nextAfterId);
 
-        return users.stream()
+        return new UserPageDto(users.stream()
                 .map(userMapper::toUserDto)
-                .toList();
+                .toList(), nextAfterId);
     }
 
     @Override
+    public void exportUsers(Long requesterId, Consumer<UserDto> sink) {
+        log.info("Выгрузка пользователей: requesterId={}", requesterId);
+
+        long count = 0;
+        try (Stream<UserDto> users = userRepository.streamAllForExport()) {
+            Iterator<UserDto> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+
+        log.info("Выгрузка пользователей завершена: count={}", count);
+    }
+
+    @Override
+    @Transactional
     public void deleteUser(Long userId) {
-        log.info("Удаление пользователя с ID={}", userId);
+        log.info("Удаление пользователя: userId={}", userId);
 
         if (!userRepository.existsById(userId)) {
             log.warn("Попытка удалить несуществующего пользователя с ID={}", userId);
             throw new NotFoundException("Пользователь не найден");
         }
 
+        // the database cascades to the user's items and bookings; collect the affected items before they go
+        Set<Long> affectedItems = new HashSet<>(itemRepository.findIdsByOwnerId(userId));
+        affectedItems.addAll(bookingRepository.findItemIdsByBookerId(userId));
+
         userRepository.deleteById(userId);
+        bookingIntervalIndex.evictAll(affectedItems);
     }
 }
\ No newline at end of file
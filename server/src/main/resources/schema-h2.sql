@@ -0,0 +1,4 @@
+-- H2 has no expression indexes: a case-insensitive column type makes UQ_USER_EMAIL ignore case instead
+ALTER TABLE users DROP CONSTRAINT UQ_USER_EMAIL;
+ALTER TABLE users ALTER COLUMN email SET DATA TYPE VARCHAR_IGNORECASE(512);
+ALTER TABLE users ADD CONSTRAINT UQ_USER_EMAIL UNIQUE (email);
@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_booking_item_overlap EXCLUDE USING gist (
+        item_id WITH =,
+        tsrange(start_date, end_date) WITH &&
+    ) WHERE (status IN ('WAITING', 'APPROVED'));
+
+-- emails are unique regardless of case; the same index serves lookups by lower(email)
+ALTER TABLE users DROP CONSTRAINT IF EXISTS UQ_USER_EMAIL;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
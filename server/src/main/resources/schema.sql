@@ -1,17 +1,31 @@
-DROP TABLE IF EXISTS users, items, bookings, comments, requests;
+DROP TABLE IF EXISTS users, items, bookings, comments, requests, outbox_events, outbox_relay_lease, item_summary;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS outbox_seq;
+
+-- INCREMENT BY must be equal to spring.jpa.properties.shareit.id.allocation_size
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    name  VARCHAR(255)                            NOT NULL,
-    email VARCHAR(512)                            NOT NULL,
+    id    BIGINT       NOT NULL,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(512) NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id          BIGINT       PRIMARY KEY,
     name        VARCHAR(255) NOT NULL,
     description TEXT         NOT NULL,
     available   BOOLEAN      NOT NULL,
@@ -22,12 +36,12 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    start_date TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
-    end_date   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
-    item_id    BIGINT                                  NOT NULL,
-    booker_id  BIGINT                                  NOT NULL,
-    status     VARCHAR(20)                             NOT NULL,
+    id         BIGINT                      NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT                      NOT NULL,
+    booker_id  BIGINT                      NOT NULL,
+    status     VARCHAR(20)                 NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
@@ -35,11 +49,11 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    text      TEXT                                    NOT NULL,
-    item_id   BIGINT                                  NOT NULL,
-    author_id BIGINT                                  NOT NULL,
-    created   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    id        BIGINT                      NOT NULL,
+    text      TEXT                        NOT NULL,
+    item_id   BIGINT                      NOT NULL,
+    author_id BIGINT                      NOT NULL,
+    created   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_item_comment FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
@@ -47,9 +61,58 @@ CREATE TABLE IF NOT EXISTS comments
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id           BIGINT                      PRIMARY KEY,
     description  TEXT                        NOT NULL,
     requester_id BIGINT                      NOT NULL,
     created      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    -- number of items created in response; maintained by the item service
+    response_count INTEGER                   NOT NULL DEFAULT 0,
     CONSTRAINT fk_requester FOREIGN KEY (requester_id) REFERENCES users (id)
 );
+
+-- keyset feed of other users' requests: ordered scan with the requester filtered from the index itself
+CREATE INDEX IF NOT EXISTS ix_requests_feed ON requests (created DESC, id DESC, requester_id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+-- read model of item responses, see ItemSummaryService
+CREATE TABLE IF NOT EXISTS item_summary
+(
+    item_id         BIGINT                      PRIMARY KEY,
+    owner_id        BIGINT                      NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    refresh_at      TIMESTAMP WITHOUT TIME ZONE,
+    comments_count  INTEGER                     NOT NULL DEFAULT 0,
+    latest_comments TEXT                        NOT NULL,
+    CONSTRAINT fk_summary_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_item_summary_owner ON item_summary (owner_id);
+CREATE INDEX IF NOT EXISTS ix_item_summary_refresh ON item_summary (refresh_at);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+-- domain events written in the same transaction as the change; rows are deleted once every subscriber took them
+-- or after the last retry
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id           BIGINT                      PRIMARY KEY,
+    type         VARCHAR(50)                 NOT NULL,
+    recipient_id BIGINT                      NOT NULL,
+    payload      TEXT                        NOT NULL,
+    created      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts     INT                         NOT NULL DEFAULT 0
+);
+
+-- single row naming the instance allowed to relay the outbox
+CREATE TABLE IF NOT EXISTS outbox_relay_lease
+(
+    id         INT                         PRIMARY KEY,
+    owner      VARCHAR(255),
+    expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+INSERT INTO outbox_relay_lease (id, owner, expires_at) VALUES (1, NULL, TIMESTAMP '1970-01-01 00:00:00');
@@ -9,6 +9,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchOutcome;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -121,4 +124,22 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
+
+    @Test
+    @DisplayName("Пакетное подтверждение бронирований возвращает результат по каждому ID")
+    void approveBatch_shouldReturnPerIdResults() throws Exception {
+        Mockito.when(bookingService.updateBookings(anyLong(), any()))
+                .thenReturn(List.of(
+                        new BookingBatchResultDto(1L, BookingBatchOutcome.UPDATED, BookingStatus.APPROVED),
+                        new BookingBatchResultDto(2L, BookingBatchOutcome.NOT_FOUND, null)));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingBatchRequestDto(List.of(1L, 2L), true))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+    }
 }
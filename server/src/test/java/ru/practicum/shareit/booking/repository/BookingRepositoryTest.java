@@ -4,9 +4,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -15,7 +18,15 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -154,4 +165,154 @@ class BookingRepositoryTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getStatus()).isEqualTo(BookingStatus.APPROVED);
     }
+
+    @Test
+    @DisplayName("Проверка пересечения бронирований учитывает только активные статусы")
+    void existsOverlapping_shouldDetectOnlyActiveOverlaps() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@example.com");
+        owner = userRepository.save(owner);
+
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+        booker = userRepository.save(booker);
+
+        Item item = new Item();
+        item.setName("Item1");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        LocalDateTime end = start.plusDays(2);
+
+        Booking approved = new Booking();
+        approved.setBooker(booker);
+        approved.setItem(item);
+        approved.setStart(start);
+        approved.setEnd(end);
+        approved.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(approved);
+
+        Booking rejected = new Booking();
+        rejected.setBooker(booker);
+        rejected.setItem(item);
+        rejected.setStart(end.plusDays(1));
+        rejected.setEnd(end.plusDays(2));
+        rejected.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(rejected);
+
+        EnumSet<BookingStatus> active = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertThat(bookingRepository.existsOverlapping(item.getId(), start.plusDays(1), end.plusDays(1), active))
+                .isTrue();
+        assertThat(bookingRepository.existsOverlapping(item.getId(), end, end.plusHours(1), active))
+                .isFalse();
+        assertThat(bookingRepository.existsOverlapping(item.getId(), end.plusDays(1), end.plusDays(2), active))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Блокировка пакета бронирований возвращает существующие ID по возрастанию")
+    void lockByIdIn_shouldLockExistingBookingsInIdOrder() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("lock-owner@example.com");
+        owner = userRepository.save(owner);
+
+        Item item = new Item();
+        item.setName("Item");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setBooker(owner);
+            booking.setItem(item);
+            booking.setStart(LocalDateTime.now().plusDays(i + 1));
+            booking.setEnd(LocalDateTime.now().plusDays(i + 2));
+            booking.setStatus(BookingStatus.WAITING);
+            ids.add(bookingRepository.save(booking).getId());
+        }
+        bookingRepository.flush();
+
+        assertThat(bookingRepository.lockByIdIn(List.of(ids.get(2), -1L, ids.get(0))))
+                .containsExactly(ids.get(0), ids.get(2));
+    }
+
+    @Test
+    @DisplayName("Параллельные подтверждения одного бронирования изменяют статус ровно один раз")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateStatusIfWaiting_shouldSucceedOnceUnderConcurrentApprovals() throws Exception {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("concurrent-owner@example.com");
+        owner = userRepository.save(owner);
+
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("concurrent-booker@example.com");
+        booker = userRepository.save(booker);
+
+        Item item = new Item();
+        item.setName("Item");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        Booking booking = new Booking();
+        booking.setBooker(booker);
+        booking.setItem(item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setStatus(BookingStatus.WAITING);
+        booking = bookingRepository.save(booking);
+
+        int threads = 8;
+        long bookingId = booking.getId();
+        long ownerId = owner.getId();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                BookingStatus status = i % 2 == 0 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                Callable<Integer> approval = () -> {
+                    start.await();
+                    return bookingRepository.updateStatusIfWaiting(bookingId, ownerId, status);
+                };
+                results.add(executor.submit(approval));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                try {
+                    succeeded += result.get();
+                } catch (ExecutionException e) {
+                    // a lock timeout is a lost race as well, any other failure is not
+                    assertThat(e.getCause()).isInstanceOf(PessimisticLockingFailureException.class);
+                }
+            }
+
+            assertThat(succeeded).isEqualTo(1);
+            assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus())
+                    .isIn(BookingStatus.APPROVED, BookingStatus.REJECTED);
+            assertThat(bookingRepository.updateStatusIfWaiting(bookingId, ownerId, BookingStatus.APPROVED))
+                    .isZero();
+        } finally {
+            executor.shutdownNow();
+            bookingRepository.deleteById(bookingId);
+            itemRepository.deleteById(item.getId());
+            userRepository.deleteById(booker.getId());
+            userRepository.deleteById(ownerId);
+        }
+    }
 }
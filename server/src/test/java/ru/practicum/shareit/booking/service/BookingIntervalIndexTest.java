@@ -0,0 +1,172 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex index;
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingPeriod period(long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Индекс загружается из базы один раз и возвращает пересечения с окном")
+    void findBusy_ShouldLoadOnceAndClipToWindow() {
+        when(bookingRepository.findByItem_IdAndStatusIn(1L, BookingStatus.ACTIVE)).thenReturn(List.of(
+                period(1L, base.plusDays(1), base.plusDays(3)),
+                period(2L, base.plusDays(5), base.plusDays(6))));
+
+        List<AvailabilityIntervalDto> busy = index.findBusy(1L, base.plusDays(2), base.plusDays(10));
+        List<AvailabilityIntervalDto> again = index.findBusy(1L, base, base.plusDays(1));
+
+        assertEquals(List.of(new AvailabilityIntervalDto(base.plusDays(2), base.plusDays(3)),
+                new AvailabilityIntervalDto(base.plusDays(5), base.plusDays(6))), busy);
+        assertTrue(again.isEmpty());
+        assertTrue(index.isLoaded(1L));
+        verify(bookingRepository, times(1)).findByItem_IdAndStatusIn(1L, BookingStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Добавление и удаление бронирования обновляют загруженный индекс")
+    void addAndRemove_ShouldUpdateLoadedItem() {
+        when(bookingRepository.findByItem_IdAndStatusIn(1L, BookingStatus.ACTIVE)).thenReturn(List.of());
+        index.findBusy(1L, base, base.plusDays(1));
+
+        index.add(1L, 10L, base.plusDays(2), base.plusDays(4));
+        index.add(1L, 11L, base.plusDays(4), base.plusDays(5));
+
+        assertEquals(List.of(new AvailabilityIntervalDto(base.plusDays(2), base.plusDays(5))),
+                index.findBusy(1L, base, base.plusDays(10)));
+
+        index.remove(1L, 10L);
+
+        assertEquals(List.of(new AvailabilityIntervalDto(base.plusDays(4), base.plusDays(5))),
+                index.findBusy(1L, base, base.plusDays(10)));
+    }
+
+    @Test
+    @DisplayName("Изменения незагруженной вещи не попадают в индекс")
+    void add_ShouldIgnoreItemsNotLoaded() {
+        index.add(2L, 10L, base, base.plusDays(1));
+
+        assertFalse(index.isLoaded(2L));
+    }
+
+    @Test
+    @DisplayName("Снимок интервалов заменяет бронирование с тем же id")
+    void itemIntervals_ShouldReplaceSameId() {
+        BookingIntervalIndex.ItemIntervals intervals = BookingIntervalIndex.ItemIntervals.of(List.of(
+                period(1L, base.plusDays(3), base.plusDays(4)),
+                period(2L, base.plusDays(1), base.plusDays(2))));
+
+        intervals = intervals.with(1L, BookingIntervalIndex.toEpochMillis(base.plusDays(5)),
+                BookingIntervalIndex.toEpochMillis(base.plusDays(6)));
+
+        assertEquals(2, intervals.size());
+        assertEquals(List.of(new AvailabilityIntervalDto(base.plusDays(1), base.plusDays(2)),
+                        new AvailabilityIntervalDto(base.plusDays(5), base.plusDays(6))),
+                intervals.busy(BookingIntervalIndex.toEpochMillis(base),
+                        BookingIntervalIndex.toEpochMillis(base.plusDays(10))));
+    }
+
+    @Test
+    @DisplayName("Снимок из неупорядоченных интервалов сортируется, новое бронирование встаёт на своё место")
+    void itemIntervals_ShouldSortOnLoadAndInsertInOrder() {
+        BookingIntervalIndex.ItemIntervals intervals = BookingIntervalIndex.ItemIntervals.of(List.of(
+                period(3L, base.plusDays(7), base.plusDays(8)),
+                period(1L, base.plusDays(1), base.plusDays(2)),
+                period(2L, base.plusDays(3), base.plusDays(4))));
+
+        intervals = intervals.with(4L, BookingIntervalIndex.toEpochMillis(base.plusDays(5)),
+                BookingIntervalIndex.toEpochMillis(base.plusDays(6)));
+
+        assertEquals(List.of(new AvailabilityIntervalDto(base.plusDays(1), base.plusDays(2)),
+                        new AvailabilityIntervalDto(base.plusDays(3), base.plusDays(4)),
+                        new AvailabilityIntervalDto(base.plusDays(5), base.plusDays(6)),
+                        new AvailabilityIntervalDto(base.plusDays(7), base.plusDays(8))),
+                intervals.busy(BookingIntervalIndex.toEpochMillis(base),
+                        BookingIntervalIndex.toEpochMillis(base.plusDays(10))));
+    }
+
+    @Test
+    @DisplayName("Вытесненные вещи перечитываются из базы при следующем запросе")
+    void evictAll_ShouldReloadEvictedItems() {
+        when(bookingRepository.findByItem_IdAndStatusIn(1L, BookingStatus.ACTIVE))
+                .thenReturn(List.of(period(1L, base.plusDays(1), base.plusDays(2))))
+                .thenReturn(List.of());
+
+        assertEquals(1, index.findBusy(1L, base, base.plusDays(10)).size());
+        index.evictAll(List.of(1L, 2L));
+
+        assertFalse(index.isLoaded(1L));
+        assertTrue(index.findBusy(1L, base, base.plusDays(10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Индекс хранит не больше заданного числа вещей")
+    void findBusy_ShouldKeepAtMostMaxItems() {
+        ReflectionTestUtils.setField(index, "maxItems", 2);
+        when(bookingRepository.findByItem_IdAndStatusIn(anyLong(), eq(BookingStatus.ACTIVE))).thenReturn(List.of());
+
+        for (long itemId = 1; itemId <= 5; itemId++) {
+            index.findBusy(itemId, base, base.plusDays(1));
+        }
+
+        assertTrue(index.isLoaded(5L));
+        assertEquals(2, LongStream.rangeClosed(1, 5).filter(index::isLoaded).count());
+    }
+
+    @Test
+    @DisplayName("Интервалы, начинающиеся после окна, не попадают в результат")
+    void itemIntervals_ShouldStopAtWindowEnd() {
+        BookingIntervalIndex.ItemIntervals intervals = BookingIntervalIndex.ItemIntervals.of(List.of(
+                period(1L, base.plusDays(1), base.plusDays(2)),
+                period(2L, base.plusDays(3), base.plusDays(4)),
+                period(3L, base.plusDays(5), base.plusDays(6))));
+
+        assertEquals(List.of(new AvailabilityIntervalDto(base.plusDays(1), base.plusDays(2))),
+                intervals.busy(BookingIntervalIndex.toEpochMillis(base),
+                        BookingIntervalIndex.toEpochMillis(base.plusDays(3))));
+    }
+}
@@ -3,23 +3,34 @@ package ru.practicum.shareit.booking.service;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingBatchOutcome;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingOwnership;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.event.model.EventType;
 import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryService;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -27,6 +38,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +55,12 @@ class BookingServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private BookingMapper mapper;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private OutboxPublisher outboxPublisher;
+    @Mock
+    private ItemSummaryService itemSummaryService;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -79,14 +97,57 @@ class BookingServiceImplTest {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
         when(mapper.toBookingDto(any(Booking.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.createBooking(1L, request);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(bookingRepository).save(any(Booking.class));
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
+        verify(itemSummaryService).refreshBookings(item.getId());
+        verify(outboxPublisher).publish(eq(owner.getId()),
+                argThat((EventDto event) -> event.getType() == EventType.BOOKING_CREATED
+                        && event.getBookingId().equals(1L)));
+    }
+
+    @Test
+    @DisplayName("Создание бронирования, пересекающегося с существующим, выбрасывает ConflictException")
+    void createBooking_OverlappingBooking_ThrowsConflictException() {
+        BookingRequestDto request = new BookingRequestDto(
+                1L,
+                LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusDays(1)
+        );
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "conflicting key value violates exclusion constraint \"ex_booking_item_overlap\""));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(1L, request));
+
+        assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+        verify(mapper, never()).toBookingDto(any());
+    }
+
+    @Test
+    @DisplayName("Нарушение другого ограничения при создании бронирования пробрасывается без изменений")
+    void createBooking_OtherIntegrityViolation_Rethrows() {
+        BookingRequestDto request = new BookingRequestDto(
+                1L,
+                LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusDays(1)
+        );
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "insert or update on table \"bookings\" violates foreign key constraint \"fk_booking_item\""));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBooking(1L, request));
+        verify(mapper, never()).toBookingDto(any());
     }
 
     @Test
@@ -101,8 +162,8 @@ class BookingServiceImplTest {
                 BookingStatus.APPROVED
         );
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any())).thenReturn(approvedBooking);
+        when(bookingRepository.updateStatusIfWaiting(1L, 2L, BookingStatus.APPROVED)).thenReturn(1);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(approvedBooking));
         when(mapper.toBookingDto(any())).thenReturn(
                 new BookingDto(
                         1L,
@@ -117,7 +178,9 @@ class BookingServiceImplTest {
         BookingDto result = bookingService.updateBooking(2L, 1L, true);
 
         assertEquals(BookingStatus.APPROVED, result.getStatus());
-        verify(bookingRepository).save(approvedBooking);
+        verify(bookingRepository, never()).save(any());
+        verify(outboxPublisher).publish(eq(user.getId()),
+                argThat((EventDto event) -> event.getType() == EventType.BOOKING_APPROVED));
     }
 
     @Test
@@ -356,14 +419,14 @@ class BookingServiceImplTest {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
         when(mapper.toBookingDto(any(Booking.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.createBooking(1L, request);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(bookingRepository).save(any(Booking.class));
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
     }
 
     @Test
@@ -455,4 +518,57 @@ class BookingServiceImplTest {
         ValidationException exception = assertThrows(ValidationException.class, () -> bookingService.createBooking(1L, request));
         assertEquals("Дата окончания должна быть позже даты начала", exception.getMessage());
     }
+
+    private BookingOwnership ownership(Long id, Long ownerId, BookingStatus status) {
+        BookingOwnership ownership = mock(BookingOwnership.class);
+        lenient().when(ownership.getId()).thenReturn(id);
+        lenient().when(ownership.getItemId()).thenReturn(item.getId());
+        lenient().when(ownership.getOwnerId()).thenReturn(ownerId);
+        lenient().when(ownership.getBookerId()).thenReturn(user.getId());
+        lenient().when(ownership.getStatus()).thenReturn(status);
+        return ownership;
+    }
+
+    @Test
+    @DisplayName("Пакетное отклонение возвращает результат по каждому бронированию")
+    void updateBookings_MixedBatch_ReturnsPerIdOutcomes() {
+        BookingBatchRequestDto request = new BookingBatchRequestDto(List.of(1L, 2L, 3L, 4L, 1L), false);
+
+        // the projections are mocks themselves, so they are stubbed before the repository stubbing starts
+        List<BookingOwnership> ownerships = List.of(
+                ownership(1L, owner.getId(), BookingStatus.WAITING),
+                ownership(2L, owner.getId(), BookingStatus.APPROVED),
+                ownership(3L, user.getId(), BookingStatus.WAITING));
+        when(bookingRepository.findOwnershipByIdIn(any())).thenReturn(ownerships);
+        when(bookingRepository.updateStatusIfWaiting(Set.of(1L), owner.getId(), BookingStatus.REJECTED))
+                .thenReturn(1);
+
+        List<BookingBatchResultDto> results = bookingService.updateBookings(owner.getId(), request);
+
+        assertEquals(List.of(
+                new BookingBatchResultDto(1L, BookingBatchOutcome.UPDATED, BookingStatus.REJECTED),
+                new BookingBatchResultDto(2L, BookingBatchOutcome.ALREADY_PROCESSED, BookingStatus.APPROVED),
+                new BookingBatchResultDto(3L, BookingBatchOutcome.FORBIDDEN, null),
+                new BookingBatchResultDto(4L, BookingBatchOutcome.NOT_FOUND, null)), results);
+        // the statuses are read only after the rows are locked, so they are the ones the update sees
+        InOrder inOrder = inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).lockByIdIn(Set.of(1L, 2L, 3L, 4L));
+        inOrder.verify(bookingRepository).findOwnershipByIdIn(any());
+        inOrder.verify(bookingRepository).updateStatusIfWaiting(Set.of(1L), owner.getId(), BookingStatus.REJECTED);
+        verify(bookingRepository, times(1)).findOwnershipByIdIn(any());
+        verify(bookingIntervalIndex).remove(item.getId(), 1L);
+        verify(bookingRepository, never()).save(any());
+        verify(outboxPublisher, times(1)).publish(eq(user.getId()),
+                argThat((EventDto event) -> event.getType() == EventType.BOOKING_REJECTED
+                        && event.getBookingId().equals(1L)));
+    }
+
+    @Test
+    @DisplayName("Пакетное подтверждение с пустым списком выбрасывает ValidationException")
+    void updateBookings_EmptyIds_ThrowsValidationException() {
+        BookingBatchRequestDto request = new BookingBatchRequestDto(List.of(), true);
+
+        assertThrows(ValidationException.class, () -> bookingService.updateBookings(owner.getId(), request));
+        verifyNoInteractions(bookingRepository);
+    }
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.event.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.event.model.EventType;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventHubTest {
+    private final EventHub eventHub = new EventHub();
+
+    @AfterEach
+    void tearDown() {
+        eventHub.shutdown();
+    }
+
+    @Test
+    @DisplayName("Подписки одного пользователя учитываются отдельно от других пользователей")
+    void subscribe_ShouldRegisterConnectionPerUser() {
+        assertNotNull(eventHub.subscribe(1L));
+        eventHub.subscribe(1L);
+        eventHub.subscribe(2L);
+
+        assertEquals(2, eventHub.subscriberCount(1L));
+        assertEquals(1, eventHub.subscriberCount(2L));
+        assertEquals(0, eventHub.subscriberCount(3L));
+    }
+
+    @Test
+    @DisplayName("Событие для пользователя без подписок ничего не делает")
+    void onEvent_WithoutSubscribers_ShouldBeNoOp() {
+        assertDoesNotThrow(() -> eventHub.onEvent(1L, new EventDto(EventType.BOOKING_CREATED, 1L, 1L, null,
+                LocalDateTime.now())));
+        assertEquals(0, eventHub.subscriberCount(1L));
+    }
+
+    @Test
+    @DisplayName("Остановка закрывает все подписки")
+    void shutdown_ShouldCloseAllConnections() {
+        eventHub.subscribe(1L);
+
+        eventHub.shutdown();
+
+        assertEquals(0, eventHub.subscriberCount(1L));
+    }
+}
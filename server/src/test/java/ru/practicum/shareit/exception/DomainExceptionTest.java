@@ -0,0 +1,23 @@
+package ru.practicum.shareit.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DomainExceptionTest {
+
+    @Test
+    @DisplayName("Доменные исключения не заполняют стек вызовов")
+    void domainExceptions_shouldBeStackless() {
+        NotFoundException e = new NotFoundException("Вещь не найдена");
+        e.addSuppressed(new IllegalStateException());
+
+        assertEquals("Вещь не найдена", e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals(0, e.getSuppressed().length);
+        assertEquals(0, new ValidationException("x").getStackTrace().length);
+        assertEquals(0, new ConflictException("x").getStackTrace().length);
+        assertEquals(0, new AccessDeniedException("x").getStackTrace().length);
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -9,20 +10,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
 class ItemControllerTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
 
     @Autowired
     private MockMvc mockMvc;
@@ -173,4 +183,124 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Updated Name"));
     }
+
+    @Test
+    @DisplayName("Получение занятости вещи за период")
+    void getAvailability_shouldReturnBusyAndFreeIntervals() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .busy(List.of(new AvailabilityIntervalDto(from.plusDays(2), from.plusDays(4))))
+                .free(List.of(new AvailabilityIntervalDto(from, from.plusDays(2)),
+                        new AvailabilityIntervalDto(from.plusDays(4), to)))
+                .build();
+
+        Mockito.when(itemService.getAvailability(1L, 1L, from, to)).thenReturn(availability);
+
+        mockMvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-10T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1L))
+                .andExpect(jsonPath("$.busy.length()").value(1))
+                .andExpect(jsonPath("$.free.length()").value(2));
+
+        Mockito.verify(itemService).getAvailability(eq(1L), eq(1L), eq(from), eq(to));
+    }
+
+    @Test
+    @DisplayName("Получение страницы комментариев возвращает курсор следующей страницы в заголовке")
+    void getComments_shouldReturnPageAndNextCursor() throws Exception {
+        CommentDto comment = new CommentDto(3L, "Отлично", "Booker", LocalDateTime.of(2030, 1, 1, 0, 0));
+        Mockito.when(itemService.getComments(1L, "abc", 1)).thenReturn(new CommentPageDto(List.of(comment), "def"));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3L));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание вещей из NDJSON")
+    void createItems_shouldAcceptNdjson() throws Exception {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(1L);
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Мощная дрель");
+        itemDto.setAvailable(true);
+
+        Mockito.when(itemService.createItems(anyLong(), any())).thenAnswer(invocation -> {
+            Iterator<ItemDto> items = invocation.getArgument(1);
+            List<ItemDto> created = new ArrayList<>();
+            items.forEachRemaining(created::add);
+            return created;
+        });
+
+        String body = objectMapper.writeValueAsString(itemDto) + "\n" + objectMapper.writeValueAsString(itemDto) + "\n";
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].name").value("Дрель"));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание вещей из JSON-массива")
+    void createItems_shouldAcceptJsonArray() throws Exception {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Мощная дрель");
+        itemDto.setAvailable(true);
+
+        Mockito.when(itemService.createItems(anyLong(), any())).thenAnswer(invocation -> {
+            Iterator<ItemDto> items = invocation.getArgument(1);
+            List<ItemDto> created = new ArrayList<>();
+            items.forEachRemaining(created::add);
+            return created;
+        });
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(itemDto, itemDto, itemDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    @DisplayName("Список вещей в формате Smile для шлюза, JSON по умолчанию")
+    void getItemsByUser_shouldNegotiateSmile() throws Exception {
+        ItemResponseDto responseDto = new ItemResponseDto();
+        responseDto.setId(1L);
+        responseDto.setName("Дрель");
+
+        Mockito.when(itemService.getItemsByUser(anyLong())).thenReturn(List.of(responseDto));
+
+        byte[] body = mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(SMILE, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        ItemResponseDto[] decoded = new ObjectMapper(new SmileFactory()).findAndRegisterModules()
+                .readValue(body, ItemResponseDto[].class);
+        assertEquals("Дрель", decoded[0].getName());
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
 }
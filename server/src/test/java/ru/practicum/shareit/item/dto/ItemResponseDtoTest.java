@@ -26,6 +26,7 @@ class ItemResponseDtoTest {
         itemResponseDto.setLastBooking(lastBooking);
         itemResponseDto.setNextBooking(nextBooking);
         itemResponseDto.setComments(List.of(new CommentDto(1L, "Комментарий", "Автор", null)));
+        itemResponseDto.setCommentsCount(12);
 
         assertThat(itemResponseDto.getId()).isEqualTo(1L);
         assertThat(itemResponseDto.getName()).isEqualTo("Дрель");
@@ -36,6 +37,7 @@ class ItemResponseDtoTest {
         assertThat(itemResponseDto.getNextBooking()).isEqualTo(nextBooking);
         assertThat(itemResponseDto.getComments()).isNotEmpty();
         assertThat(itemResponseDto.getComments().get(0).getText()).isEqualTo("Комментарий");
+        assertThat(itemResponseDto.getCommentsCount()).isEqualTo(12);
     }
 
     @Test
@@ -44,11 +46,12 @@ class ItemResponseDtoTest {
         BookingShortDto lastBooking = new BookingShortDto(1L, 2L);  // bookerId вместо строки
         BookingShortDto nextBooking = new BookingShortDto(2L, 3L);  // bookerId вместо строки
 
-        ItemResponseDto item1 = new ItemResponseDto(1L, "Дрель", "Мощная дрель", true, 3L, lastBooking, nextBooking, List.of(new CommentDto(1L, "Комментарий", "Автор", null)));
-        ItemResponseDto item2 = new ItemResponseDto(1L, "Дрель", "Мощная дрель", true, 3L, lastBooking, nextBooking, List.of(new CommentDto(1L, "Комментарий", "Автор", null)));
+        ItemResponseDto item1 = new ItemResponseDto(1L, "Дрель", "Мощная дрель", true, 3L, lastBooking, nextBooking, List.of(new CommentDto(1L, "Комментарий", "Автор", null)), 12);
+        ItemResponseDto item2 = new ItemResponseDto(1L, "Дрель", "Мощная дрель", true, 3L, lastBooking, nextBooking, List.of(new CommentDto(1L, "Комментарий", "Автор", null)), 12);
 
         assertThat(item1).isEqualTo(item2);
         assertThat(item1.hashCode()).isEqualTo(item2.hashCode());
+        assertThat(item1.getCommentsCount()).isEqualTo(12);
     }
 
     @Test
@@ -66,6 +69,7 @@ class ItemResponseDtoTest {
                 .lastBooking(lastBooking)
                 .nextBooking(nextBooking)
                 .comments(List.of(new CommentDto(1L, "Комментарий", "Автор", null)))
+                .commentsCount(1)
                 .build();
 
         assertThat(itemResponseDto.getId()).isEqualTo(1L);
@@ -76,5 +80,6 @@ class ItemResponseDtoTest {
         assertThat(itemResponseDto.getLastBooking()).isEqualTo(lastBooking);
         assertThat(itemResponseDto.getNextBooking()).isEqualTo(nextBooking);
         assertThat(itemResponseDto.getComments()).isNotEmpty();
+        assertThat(itemResponseDto.getCommentsCount()).isEqualTo(1);
     }
 }
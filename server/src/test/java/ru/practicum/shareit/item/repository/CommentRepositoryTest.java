@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +27,8 @@ class CommentRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     private Item item;
     private User user;
@@ -42,9 +47,10 @@ class CommentRepositoryTest {
         item.setOwner(user);
         item = itemRepository.save(item);
 
-        commentRepository.save(new Comment(null, "Отличная дрель!", item, user, LocalDateTime.now()));
-        commentRepository.save(new Comment(null, "Хороший товар", item, user, LocalDateTime.now().minusDays(1)));
-        commentRepository.save(new Comment(null, "Не очень", item, user, LocalDateTime.now().minusDays(2)));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        commentRepository.save(new Comment(null, "Отличная дрель!", item, user, now));
+        commentRepository.save(new Comment(null, "Хороший товар", item, user, now.minusDays(1)));
+        commentRepository.save(new Comment(null, "Не очень", item, user, now.minusDays(2)));
     }
 
     @Test
@@ -87,4 +93,21 @@ class CommentRepositoryTest {
         assertThat(comments.get(1).getText()).isEqualTo("Хороший товар");
         assertThat(comments.get(2).getText()).isEqualTo("Отличная дрель!");
     }
+
+    @Test
+    @DisplayName("Постраничная выборка комментариев по курсору (created, id) продолжает с последнего комментария")
+    void findPageAfter_shouldContinueFromCursor() {
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Comment> firstPage = commentRepository.findByItem_IdOrderByCreatedDescIdDesc(item.getId(), Limit.of(2));
+        Comment last = firstPage.get(1);
+
+        List<Comment> secondPage = commentRepository.findPageAfter(item.getId(), last.getCreated(), last.getId(),
+                Limit.of(2));
+
+        assertThat(firstPage).extracting(Comment::getText).containsExactly("Отличная дрель!", "Хороший товар");
+        assertThat(secondPage).extracting(Comment::getText).containsExactly("Не очень");
+        assertThat(secondPage.get(0).getAuthor().getName()).isEqualTo("testUser");
+    }
 }
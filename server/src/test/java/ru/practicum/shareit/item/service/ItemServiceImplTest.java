@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,24 +8,39 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.event.model.EventType;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.FeedCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,6 +60,16 @@ class ItemServiceImplTest {
     private ItemMapper itemMapper;
     @Mock
     private CommentMapper commentMapper;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private OutboxPublisher outboxPublisher;
+    @Mock
+    private ItemSummaryService itemSummaryService;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -216,6 +242,7 @@ class ItemServiceImplTest {
         assertEquals(1L, result.getId());
         assertEquals("Awesome item", result.getText());
         assertEquals("Owner", result.getAuthorName());
+        verify(itemSummaryService).addComment(1L, savedCommentDto);
     }
 
     @Test
@@ -311,16 +338,36 @@ class ItemServiceImplTest {
     void getItemsByUser_ShouldReturnListOfItems() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
         when(itemRepository.findByOwner_Id(anyLong(), any(Sort.class))).thenReturn(List.of(item));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(commentRepository.findByItem_Id(anyLong(), any(Sort.class))).thenReturn(List.of());
-        when(bookingRepository.findPastOwnerBookings(anyLong(), anyLong(), any())).thenReturn(List.of());
-        when(bookingRepository.findFutureOwnerBookings(anyLong(), anyLong(), any())).thenReturn(List.of());
+        ItemSummary summary = new ItemSummary(1L, 1L, 10L, 2L, null, null, null, 0, "[]");
+        when(itemSummaryService.getByOwner(1L, List.of(item))).thenReturn(Map.of(1L, summary));
+        when(itemSummaryService.latestComments(summary)).thenReturn(List.of());
 
         List<ItemResponseDto> result = itemService.getItemsByUser(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(item.getId(), result.get(0).getId());
+        assertEquals(10L, result.get(0).getLastBooking().getId());
+        assertNull(result.get(0).getNextBooking());
+        verify(itemRepository, never()).findById(anyLong());
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+
+    @Test
+    @DisplayName("Получение вещи не владельцем скрывает бронирования из сводки")
+    void getItem_NotOwner_ShouldHideBookingsFromSummary() {
+        ItemSummary summary = new ItemSummary(1L, 1L, 10L, 2L, 11L, 3L, null, 1, "[]");
+        CommentDto comment = new CommentDto(5L, "Отлично", "Booker", LocalDateTime.now());
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemSummaryService.get(item)).thenReturn(summary);
+        when(itemSummaryService.latestComments(summary)).thenReturn(List.of(comment));
+
+        ItemResponseDto result = itemService.getItem(2L, 1L);
+
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        assertEquals(List.of(comment), result.getComments());
+        assertEquals(1, result.getCommentsCount());
     }
 
     @Test
@@ -390,4 +437,174 @@ class ItemServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(1L, 1L, itemDto));
     }
+
+    @Test
+    @DisplayName("Занятость вещи возвращает свободные окна между бронированиями")
+    void getAvailability_ShouldReturnFreeWindowsBetweenBusyIntervals() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        AvailabilityIntervalDto busy = new AvailabilityIntervalDto(from.plusDays(2), from.plusDays(4));
+
+        when(bookingIntervalIndex.isLoaded(1L)).thenReturn(true);
+        when(bookingIntervalIndex.findBusy(1L, from, to)).thenReturn(List.of(busy));
+
+        ItemAvailabilityDto result = itemService.getAvailability(1L, 1L, from, to);
+
+        assertEquals(List.of(busy), result.getBusy());
+        assertEquals(List.of(new AvailabilityIntervalDto(from, from.plusDays(2)),
+                new AvailabilityIntervalDto(from.plusDays(4), to)), result.getFree());
+        verify(itemRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Занятость несуществующей вещи должна выбросить NotFoundException")
+    void getAvailability_UnknownItem_ShouldThrowNotFoundException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        when(bookingIntervalIndex.isLoaded(99L)).thenReturn(false);
+        when(itemRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(1L, 99L, from, from.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Занятость с концом периода раньше начала должна выбросить ValidationException")
+    void getAvailability_InvalidPeriod_ShouldThrowValidationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(1L, 1L, from, from.minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание вещей сохраняет их одним вызовом saveAll")
+    void createItems_ShouldSaveAllItemsInBatch() {
+        ItemDto second = new ItemDto();
+        second.setName("Second");
+        second.setDescription("Second description");
+        second.setAvailable(false);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(itemMapper.toItem(any(ItemDto.class))).thenAnswer(invocation -> new Item());
+        when(itemRepository.saveAll(anyList())).thenReturn(List.of(item, item));
+        when(itemMapper.toItemDto(item)).thenReturn(itemDto);
+
+        List<ItemDto> result = itemService.createItems(1L, List.of(itemDto, second).iterator());
+
+        assertEquals(2, result.size());
+        verify(itemRepository, times(1)).saveAll(anyList());
+        verify(itemRepository).flush();
+        verify(entityManager).clear();
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Пакетное создание с некорректной вещью указывает её номер")
+    void createItems_InvalidItem_ShouldThrowValidationExceptionWithIndex() {
+        ItemDto invalid = new ItemDto();
+        invalid.setDescription("Description");
+        invalid.setAvailable(true);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> itemService.createItems(1L, List.of(itemDto, invalid).iterator()));
+
+        assertEquals("Вещь №2: Название вещи не может быть пустым", exception.getMessage());
+        verify(itemRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Создание вещи в ответ на запрос увеличивает счётчик ответов и уведомляет автора запроса")
+    void createItem_WithRequest_ShouldIncrementResponseCount() {
+        User requestor = new User();
+        requestor.setId(7L);
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        request.setRequestor(requestor);
+        itemDto.setRequestId(5L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(itemMapper.toItem(itemDto)).thenReturn(item);
+        when(itemRequestRepository.findById(5L)).thenReturn(Optional.of(request));
+        when(itemRepository.save(item)).thenReturn(item);
+        when(itemMapper.toItemDto(item)).thenReturn(itemDto);
+
+        itemService.createItem(1L, itemDto);
+
+        verify(itemRequestRepository).incrementResponseCount(5L, 1);
+        verify(outboxPublisher).publish(eq(7L), argThat((EventDto event) -> event.getType() == EventType.REQUEST_ANSWERED
+                && event.getRequestId().equals(5L)));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание вещей увеличивает счётчик ответов одним обновлением на запрос "
+            + "и уведомляет автора запроса о каждой вещи")
+    void createItems_WithRequests_ShouldIncrementResponseCountPerRequest() {
+        User requestor = new User();
+        requestor.setId(7L);
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        request.setRequestor(requestor);
+        ItemDto second = new ItemDto();
+        second.setName("Second");
+        second.setDescription("Second description");
+        second.setAvailable(true);
+        second.setRequestId(5L);
+        itemDto.setRequestId(5L);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(itemRequestRepository.findAllById(Set.of(5L))).thenReturn(List.of(request));
+        when(itemMapper.toItem(any(ItemDto.class))).thenAnswer(invocation -> new Item());
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemMapper.toItemDto(any(Item.class))).thenReturn(itemDto);
+
+        itemService.createItems(1L, List.of(itemDto, second).iterator());
+
+        verify(itemRequestRepository).incrementResponseCount(5L, 2);
+        verify(outboxPublisher, times(2)).publish(eq(7L), argThat((EventDto event) ->
+                event.getType() == EventType.REQUEST_ANSWERED && event.getRequestId().equals(5L)));
+    }
+
+    @Test
+    @DisplayName("Удаление вещи, созданной по запросу, уменьшает счётчик ответов запроса")
+    void deleteItem_WithRequest_ShouldDecrementResponseCount() {
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        item.setRequest(request);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        itemService.deleteItem(1L, 1L);
+
+        verify(itemRepository).delete(item);
+        verify(itemRequestRepository).incrementResponseCount(5L, -1);
+    }
+
+    @Test
+    @DisplayName("Страница комментариев возвращает курсор, если есть следующие комментарии")
+    void getComments_ShouldReturnNextCursorWhenMoreComments() {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Comment newer = new Comment(2L, "Новый", item, owner, created);
+        Comment older = new Comment(1L, "Старый", item, owner, created.minusDays(1));
+        CommentDto newerDto = new CommentDto(2L, "Новый", "Owner", created);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findByItem_IdOrderByCreatedDescIdDesc(1L, Limit.of(2))).thenReturn(List.of(newer, older));
+        when(commentMapper.toCommentDto(newer)).thenReturn(newerDto);
+
+        CommentPageDto page = itemService.getComments(1L, null, 1);
+
+        assertEquals(List.of(newerDto), page.getComments());
+        assertEquals(new FeedCursor(created, 2L), FeedCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Страница комментариев несуществующей вещи выбрасывает NotFoundException")
+    void getComments_ItemNotFound_ShouldThrowNotFoundException() {
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getComments(1L, null, 10));
+    }
 }
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSummaryServiceTest {
+    @Mock
+    private ItemSummaryRepository summaryRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private CommentMapper commentMapper;
+
+    private ItemSummaryService summaryService;
+
+    private final User owner = new User(1L, "owner", "owner@mail.ru");
+    private final User booker = new User(2L, "booker", "booker@mail.ru");
+    private final Item item = new Item(1L, "item", "description", true, owner, null);
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new ItemSummaryService(summaryRepository, bookingRepository, commentRepository,
+                commentMapper, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    @DisplayName("Пересчёт бронирований запоминает ближайший момент, когда сводка устареет")
+    void refreshBookings_ShouldSetLastNextAndRefreshAt() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = new Booking(10L, now.minusDays(3), now.minusDays(2), item, booker, BookingStatus.APPROVED);
+        Booking current = new Booking(11L, now.minusHours(1), now.plusHours(1), item, booker, BookingStatus.APPROVED);
+        Booking next = new Booking(12L, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.WAITING);
+        ItemSummary summary = new ItemSummary(1L, 1L, null, null, null, null, null, 0, "[]");
+        when(summaryRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(summary));
+        when(bookingRepository.findFirstByItem_IdAndEndBeforeOrderByEndDesc(eq(1L), any())).thenReturn(Optional.of(last));
+        when(bookingRepository.findFirstByItem_IdAndStartAfterOrderByStartAsc(eq(1L), any())).thenReturn(Optional.of(next));
+        when(bookingRepository.findFirstByItem_IdAndEndAfterOrderByEndAsc(eq(1L), any())).thenReturn(Optional.of(current));
+
+        summaryService.refreshBookings(1L);
+
+        assertEquals(10L, summary.getLastBookingId());
+        assertEquals(2L, summary.getLastBookerId());
+        assertEquals(12L, summary.getNextBookingId());
+        assertEquals(current.getEnd(), summary.getRefreshAt());
+    }
+
+    @Test
+    @DisplayName("Новый комментарий попадает в начало списка, список ограничен по размеру")
+    void addComment_ShouldPrependAndCapLatestComments() {
+        ItemSummary summary = new ItemSummary(1L, 1L, null, null, null, null, null, 10, "[]");
+        when(summaryRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(summary));
+
+        for (long id = 1; id <= 11; id++) {
+            summaryService.addComment(1L, new CommentDto(id, "text " + id, "booker", LocalDateTime.now()));
+        }
+
+        List<CommentDto> latest = summaryService.latestComments(summary);
+        assertEquals(21, summary.getCommentsCount());
+        assertEquals(10, latest.size());
+        assertEquals(11L, latest.get(0).getId());
+        assertEquals(2L, latest.get(9).getId());
+    }
+
+    @Test
+    @DisplayName("Сводка вещи без сохранённой строки собирается из исходных таблиц")
+    void get_WithoutStoredSummary_ShouldBuildFromSourceTables() {
+        when(summaryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(commentRepository.countByItem_Id(1L)).thenReturn(0);
+        when(commentRepository.findByItem_IdOrderByCreatedDescIdDesc(1L, Limit.of(10))).thenReturn(List.of());
+
+        ItemSummary summary = summaryService.get(item);
+
+        assertEquals(1L, summary.getOwnerId());
+        assertNull(summary.getLastBookingId());
+        assertNull(summary.getRefreshAt());
+        assertTrue(summaryService.latestComments(summary).isEmpty());
+        verify(summaryRepository, never()).save(any());
+    }
+}
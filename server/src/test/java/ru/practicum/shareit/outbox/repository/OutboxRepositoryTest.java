@@ -0,0 +1,47 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class OutboxRepositoryTest {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Test
+    @DisplayName("Выборка пакета outbox возвращает самые старые события в порядке записи")
+    void lockNextBatch_shouldReturnOldestEventsInOrder() {
+        for (long recipient = 1; recipient <= 3; recipient++) {
+            outboxRepository.save(new OutboxEvent(null, EventType.BOOKING_CREATED, recipient, "{}",
+                    LocalDateTime.now(), 0));
+        }
+        outboxRepository.flush();
+
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(2);
+
+        assertThat(batch).extracting(OutboxEvent::getRecipientId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Аренду outbox нельзя получить, пока её держит другой экземпляр, но можно после истечения")
+    void acquireLease_shouldBeExclusiveUntilExpired() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        assertThat(outboxRepository.acquireLease("first", now, now.plusSeconds(10))).isEqualTo(1);
+        assertThat(outboxRepository.acquireLease("first", now.plusSeconds(5), now.plusSeconds(15))).isEqualTo(1);
+        assertThat(outboxRepository.acquireLease("second", now.plusSeconds(5), now.plusSeconds(15))).isZero();
+        assertThat(outboxRepository.acquireLease("second", now.plusSeconds(20), now.plusSeconds(30))).isEqualTo(1);
+        assertThat(outboxRepository.releaseLease("second")).isEqualTo(1);
+        assertThat(outboxRepository.acquireLease("first", now.plusSeconds(21), now.plusSeconds(31))).isEqualTo(1);
+    }
+}
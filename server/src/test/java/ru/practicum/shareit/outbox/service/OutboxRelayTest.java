@@ -0,0 +1,125 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.event.dto.EventDto;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private OutboxRepository outboxRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private OutboxSubscriber failingSubscriber;
+    @Mock
+    private OutboxSubscriber subscriber;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(outboxRepository.acquireLease(anyString(), any(), any())).thenReturn(1);
+        relay = new OutboxRelay(outboxRepository, List.of(failingSubscriber, subscriber), objectMapper,
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("Событие, принятое всеми подписчиками, удаляется из outbox")
+    void relayBatch_ShouldDeliverToAllSubscribersAndDelete() throws Exception {
+        EventDto event = event();
+        OutboxEvent row = row(event, 0);
+        when(outboxRepository.lockNextBatch(100)).thenReturn(List.of(row));
+
+        int relayed = relay.relayBatch();
+
+        assertEquals(1, relayed);
+        verify(failingSubscriber).onEvent(2L, event);
+        verify(subscriber).onEvent(2L, event);
+        verify(outboxRepository).deleteAllInBatch(List.of(row));
+        verify(outboxRepository, never()).saveAll(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Если подписчик упал, событие остаётся в outbox для повтора, остальные подписчики его получают")
+    void relayBatch_SubscriberFails_ShouldKeepRowForRetry() throws Exception {
+        EventDto event = event();
+        OutboxEvent row = row(event, 0);
+        when(outboxRepository.lockNextBatch(100)).thenReturn(List.of(row));
+        doThrow(new IllegalStateException("boom")).when(failingSubscriber).onEvent(2L, event);
+
+        int relayed = relay.relayBatch();
+
+        assertEquals(0, relayed);
+        assertEquals(1, row.getAttempts());
+        verify(subscriber).onEvent(2L, event);
+        verify(outboxRepository).deleteAllInBatch(List.of());
+        verify(outboxRepository).saveAll(List.of(row));
+    }
+
+    @Test
+    @DisplayName("Событие удаляется после исчерпания попыток доставки")
+    void relayBatch_LastAttemptFails_ShouldDropRow() throws Exception {
+        EventDto event = event();
+        OutboxEvent row = row(event, 4);
+        when(outboxRepository.lockNextBatch(100)).thenReturn(List.of(row));
+        doThrow(new IllegalStateException("boom")).when(failingSubscriber).onEvent(2L, event);
+
+        relay.relayBatch();
+
+        verify(outboxRepository).deleteAllInBatch(List.of(row));
+        verify(outboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Пока аренду держит другой экземпляр, outbox не читается")
+    void relayBatch_LeaseHeldElsewhere_ShouldSkip() {
+        when(outboxRepository.acquireLease(anyString(), any(), any())).thenReturn(0);
+
+        assertEquals(0, relay.relayBatch());
+        verify(outboxRepository, never()).lockNextBatch(anyInt());
+        verifyNoInteractions(subscriber, failingSubscriber);
+    }
+
+    @Test
+    @DisplayName("Пустой outbox не вызывает подписчиков")
+    void relayBatch_EmptyOutbox_ShouldReturnZero() {
+        when(outboxRepository.lockNextBatch(100)).thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+        verifyNoInteractions(subscriber, failingSubscriber);
+    }
+
+    private EventDto event() {
+        return new EventDto(EventType.BOOKING_CREATED, 3L, 4L, null, LocalDateTime.of(2024, 1, 1, 12, 0));
+    }
+
+    private OutboxEvent row(EventDto event, int attempts) throws Exception {
+        return new OutboxEvent(1L, EventType.BOOKING_CREATED, 2L, objectMapper.writeValueAsString(event),
+                LocalDateTime.now(), attempts);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourcePoolHealthIndicatorTest {
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        DbPoolProperties properties = new DbPoolProperties();
+        properties.setMaximumPoolSize(2);
+        properties.setMinimumIdle(1);
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool_health;DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName("test-pool");
+        new HikariPoolCustomizer(properties).customize(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> poolDetails(Health health) {
+        return (Map<String, Object>) health.getDetails().get("test-pool");
+    }
+
+    @Test
+    @DisplayName("Пул со свободными соединениями не считается исчерпанным")
+    void health_shouldBeUpWhenPoolHasFreeConnections() throws Exception {
+        try (Connection ignored = dataSource.getConnection()) {
+            Health health = new DataSourcePoolHealthIndicator(List.of(dataSource), 0.9).health();
+
+            assertThat(health.getStatus()).isEqualTo(Status.UP);
+            assertThat(poolDetails(health)).containsEntry("active", 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Пул, все соединения которого заняты, помечается как SATURATED")
+    void health_shouldBeSaturatedWhenAllConnectionsAreBusy() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            Health health = new DataSourcePoolHealthIndicator(List.of(dataSource), 0.9).health();
+
+            assertThat(health.getStatus()).isEqualTo(DataSourcePoolHealthIndicator.SATURATED);
+            assertThat(poolDetails(health))
+                    .containsEntry("max", 2)
+                    .containsEntry("saturated", true);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HikariPoolCustomizerTest {
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        // what spring.datasource.hikari.* would have bound
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:postgresql://localhost:5432/postgres");
+        dataSource.setMaximumPoolSize(40);
+        dataSource.setMinimumIdle(5);
+        dataSource.setConnectionTimeout(2_000);
+        dataSource.setMaxLifetime(600_000);
+        dataSource.addDataSourceProperty("prepareThreshold", 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Без shareit.db.pool.* настройки spring.datasource.hikari.* не переопределяются")
+    void customize_shouldKeepHikariSettingsWhenPoolSettingsAreNotSet() {
+        new HikariPoolCustomizer(new DbPoolProperties()).customize(dataSource);
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(40);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(5);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(2_000);
+        assertThat(dataSource.getMaxLifetime()).isEqualTo(600_000);
+        assertThat(dataSource.getDataSourceProperties())
+                .containsEntry("prepareThreshold", 0)
+                .containsEntry("preparedStatementCacheQueries", 256)
+                .containsEntry("reWriteBatchedInserts", true);
+    }
+
+    @Test
+    @DisplayName("Заданные shareit.db.pool.* применяются, остальные настройки пула сохраняются")
+    void customize_shouldApplyOnlySetPoolSettings() {
+        DbPoolProperties properties = new DbPoolProperties();
+        properties.setMaximumPoolSize(4);
+        properties.setConnectionTimeout(Duration.ofSeconds(1));
+
+        new HikariPoolCustomizer(properties).customize(dataSource);
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(4);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(1_000);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(5);
+        assertThat(dataSource.getMaxLifetime()).isEqualTo(600_000);
+    }
+
+    @Test
+    @DisplayName("Минимум простаивающих соединений не превышает размер пула")
+    void customize_shouldCapMinimumIdleByPoolSize() {
+        DbPoolProperties properties = new DbPoolProperties();
+        properties.setMinimumIdle(100);
+
+        new HikariPoolCustomizer(properties).customize(dataSource);
+
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(40);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class PooledLoSequenceTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Все сущности получают id из своей последовательности через pooled-lo с блоком из настроек")
+    void entities_shouldUsePooledLoGenerator() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        for (Class<?> entity : List.of(User.class, Item.class, Booking.class, Comment.class, ItemRequest.class,
+                OutboxEvent.class)) {
+            Object generator = sessionFactory.getMappingMetamodel().getEntityDescriptor(entity).getGenerator();
+            assertThat(generator).isInstanceOf(PooledLoSequenceGenerator.class);
+            PooledLoSequenceGenerator sequenceGenerator = (PooledLoSequenceGenerator) generator;
+            assertThat(sequenceGenerator.getOptimizer()).isInstanceOf(PooledLoOptimizer.class);
+            assertThat(sequenceGenerator.getOptimizer().getIncrementSize())
+                    .isEqualTo(PooledLoSequenceGenerator.DEFAULT_ALLOCATION_SIZE);
+        }
+        assertThat(((PooledLoSequenceGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(User.class).getGenerator()).getDatabaseStructure().getPhysicalName().render())
+                .isEqualToIgnoringCase("users_seq");
+    }
+
+    @Test
+    @DisplayName("Id из одного блока выдаются подряд без обращения к последовательности за каждым")
+    void save_shouldTakeIdsFromOneBlock() {
+        List<User> users = userRepository.saveAll(IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> User.builder().name("User " + i).email("user" + i + "@example.com").build())
+                .toList());
+
+        long first = users.get(0).getId();
+        assertThat(users).extracting(User::getId).containsExactly(first, first + 1, first + 2);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+    private static final String LAG_QUERY = "SELECT lag_seconds FROM replica_lag";
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new DriverManagerDataSource("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+        replica = new DriverManagerDataSource("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(primary).execute("CREATE TABLE node (name VARCHAR(16))");
+        new JdbcTemplate(primary).update("INSERT INTO node VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE node (name VARCHAR(16))");
+        new JdbcTemplate(replica).update("INSERT INTO node VALUES ('replica')");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (lag_seconds DOUBLE PRECISION)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    private String readNode(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node",
+                String.class));
+    }
+
+    @Test
+    @DisplayName("Транзакции только для чтения идут на реплику, остальные на основную БД")
+    void readOnlyTransactions_shouldUseReplica() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, LAG_QUERY, Duration.ofSeconds(5));
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, monitor));
+
+        assertThat(readNode(routing, true)).isEqualTo("replica");
+        assertThat(readNode(routing, false)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("При отставании реплики чтение переключается на основную БД и возвращается после догоняния")
+    void laggingReplica_shouldFallBackToPrimary() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, LAG_QUERY, Duration.ofSeconds(5));
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, monitor));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag_seconds = 30");
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(readNode(routing, true)).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag_seconds = 1");
+        monitor.check();
+
+        assertThat(readNode(routing, true)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Недоступная реплика не ломает чтение")
+    void unreachableReplica_shouldFallBackToPrimary() {
+        DriverManagerDataSource unreachable = new DriverManagerDataSource("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(unreachable, LAG_QUERY, Duration.ofSeconds(5));
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, unreachable, monitor));
+
+        assertThat(readNode(routing, true)).isEqualTo("primary");
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+}
@@ -9,9 +9,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.when;
@@ -58,12 +60,43 @@ class ItemRequestControllerTest {
     @Test
     @DisplayName("GET /requests/all - получить все запросы")
     void getAllRequests_shouldReturnList() throws Exception {
-        when(itemRequestService.getOthersRequests(1L, 0, 10)).thenReturn(Collections.emptyList());
+        when(itemRequestService.getFeed(1L, null, 10))
+                .thenReturn(new ItemRequestFeedDto(Collections.emptyList(), null));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1L)
                         .param("from", "0")
                         .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("GET /requests/all - следующая страница ленты по курсору")
+    void getAllRequests_withCursor_shouldReturnNextCursorHeader() throws Exception {
+        ItemRequestDto request = new ItemRequestDto();
+        request.setId(3L);
+        when(itemRequestService.getFeed(1L, "abc", 1))
+                .thenReturn(new ItemRequestFeedDto(List.of(request), "def"));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$[0].id").value(3L));
+    }
+
+    @Test
+    @DisplayName("GET /requests/all - смещение from > 0 обслуживается постраничным запросом")
+    void getAllRequests_withOffset_shouldUseOffsetPaging() throws Exception {
+        when(itemRequestService.getOthersRequests(1L, 20, 10)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "20")
+                        .param("size", "10"))
                 .andExpect(status().isOk());
     }
 
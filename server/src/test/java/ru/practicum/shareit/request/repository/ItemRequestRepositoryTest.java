@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -87,4 +88,41 @@ class ItemRequestRepositoryTest {
                 .extracting(ItemRequest::getDescription)
                 .containsExactly("Запрос от user2");
     }
+
+    @Test
+    @DisplayName("Лента запросов по курсору (created, id) не теряет запросы с одинаковой датой создания")
+    void findFeedAfter_shouldContinueFromCursorIncludingEqualCreated() {
+        User user1 = new User();
+        user1.setName("User1");
+        user1.setEmail("user1@example.com");
+        entityManager.persist(user1);
+
+        User user2 = new User();
+        user2.setName("User2");
+        user2.setEmail("user2@example.com");
+        entityManager.persist(user2);
+
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 3; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Запрос " + i);
+            request.setRequestor(user2);
+            request.setCreated(created);
+            entityManager.persist(request);
+        }
+        ItemRequest own = new ItemRequest();
+        own.setDescription("Свой запрос");
+        own.setRequestor(user1);
+        own.setCreated(created);
+        entityManager.persist(own);
+        entityManager.flush();
+
+        List<ItemRequest> firstPage = itemRequestRepository.findFeed(user1.getId(), Limit.of(2));
+        ItemRequest last = firstPage.get(1);
+        List<ItemRequest> secondPage = itemRequestRepository.findFeedAfter(user1.getId(), last.getCreated(),
+                last.getId(), Limit.of(2));
+
+        assertThat(firstPage).extracting(ItemRequest::getDescription).containsExactly("Запрос 2", "Запрос 1");
+        assertThat(secondPage).extracting(ItemRequest::getDescription).containsExactly("Запрос 0");
+    }
 }
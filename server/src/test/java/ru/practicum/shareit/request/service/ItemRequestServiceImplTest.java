@@ -4,10 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -73,6 +76,7 @@ class ItemRequestServiceImplTest {
         item.setId(1L);
         item.setName("Item name");
         item.setDescription("Item description");
+        item.setRequest(request);
 
         itemShortDto = new ItemShortDto();
         itemShortDto.setId(1L);
@@ -107,7 +111,7 @@ class ItemRequestServiceImplTest {
     void getOwnRequests_ReturnsListOfItemRequestDtos() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(requestRepository.findByRequestorIdOrderByCreatedDesc(userId)).thenReturn(List.of(request));
-        when(itemRepository.findByRequest_Id(anyLong())).thenReturn(List.of(item));
+        when(itemRepository.findByRequest_IdIn(anyCollection())).thenReturn(List.of(item));
         when(itemMapper.toItemShortDto(any(Item.class))).thenReturn(itemShortDto);
         when(requestMapper.toDtoWithItems(any(ItemRequest.class), anyList())).thenReturn(requestDto);
 
@@ -132,7 +136,7 @@ class ItemRequestServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(requestRepository.findAllExcludingUser(eq(userId), any()))
                 .thenReturn(List.of(request));
-        when(itemRepository.findByRequest_Id(anyLong())).thenReturn(List.of(item));
+        when(itemRepository.findByRequest_IdIn(anyCollection())).thenReturn(List.of(item));
         when(itemMapper.toItemShortDto(any(Item.class))).thenReturn(itemShortDto);
         when(requestMapper.toDtoWithItems(any(ItemRequest.class), anyList())).thenReturn(requestDto);
 
@@ -212,7 +216,7 @@ class ItemRequestServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(requestRepository.findAllExcludingUser(eq(userId), any()))
                 .thenReturn(List.of(request, request)); // Псевдоданные для проверки пагинации
-        when(itemRepository.findByRequest_Id(anyLong())).thenReturn(List.of(item));
+        when(itemRepository.findByRequest_IdIn(anyCollection())).thenReturn(List.of(item));
         when(itemMapper.toItemShortDto(any(Item.class))).thenReturn(itemShortDto);
         when(requestMapper.toDtoWithItems(any(ItemRequest.class), anyList())).thenReturn(requestDto);
 
@@ -255,6 +259,64 @@ class ItemRequestServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemRequestService.getOthersRequests(userId, 0, 10));
     }
 
+    @Test
+    @DisplayName("Первая страница ленты запросов возвращает курсор на последний запрос, если есть продолжение")
+    void getFeed_FirstPage_ReturnsNextCursor() {
+        ItemRequest older = new ItemRequest();
+        older.setId(2L);
+        older.setRequestor(user);
+        older.setCreated(request.getCreated().minusMinutes(1));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(requestRepository.findFeed(userId, Limit.of(2))).thenReturn(List.of(request, older));
+        when(itemRepository.findByRequest_IdIn(List.of(1L))).thenReturn(List.of(item));
+        when(itemMapper.toItemShortDto(item)).thenReturn(itemShortDto);
+        when(requestMapper.toDtoWithItems(request, List.of(itemShortDto))).thenReturn(requestDto);
+
+        ItemRequestFeedDto result = itemRequestService.getFeed(userId, null, 1);
+
+        assertEquals(List.of(requestDto), result.getRequests());
+        FeedCursor next = FeedCursor.decode(result.getNextCursor());
+        assertEquals(request.getCreated(), next.created());
+        assertEquals(request.getId(), next.id());
+    }
+
+    @Test
+    @DisplayName("Страница ленты по курсору ищет запросы строго после позиции курсора")
+    void getFeed_WithCursor_QueriesAfterCursor() {
+        FeedCursor cursor = new FeedCursor(request.getCreated(), 5L);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(requestRepository.findFeedAfter(userId, cursor.created(), 5L, Limit.of(11))).thenReturn(List.of());
+
+        ItemRequestFeedDto result = itemRequestService.getFeed(userId, cursor.encode(), 10);
+
+        assertTrue(result.getRequests().isEmpty());
+        assertNull(result.getNextCursor());
+        verify(itemRepository, never()).findByRequest_IdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Некорректный курсор ленты запросов выбрасывает ValidationException")
+    void getFeed_InvalidCursor_ThrowsValidationException() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(ValidationException.class, () -> itemRequestService.getFeed(userId, "not-a-cursor", 10));
+    }
+
+    @Test
+    @DisplayName("Лента запросов с неположительным или слишком большим размером страницы выбрасывает ValidationException")
+    void getFeed_InvalidSize_ThrowsValidationException() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        ValidationException zero = assertThrows(ValidationException.class,
+                () -> itemRequestService.getFeed(userId, null, 0));
+        ValidationException tooLarge = assertThrows(ValidationException.class,
+                () -> itemRequestService.getFeed(userId, null, Integer.MAX_VALUE));
+
+        assertEquals("Размер страницы должен быть положительным", zero.getMessage());
+        assertEquals("Размер страницы не может быть больше 100", tooLarge.getMessage());
+        verifyNoInteractions(requestRepository);
+    }
+
     @Test
     @DisplayName("Поиск вещей с некорректным запросом возвращает пустой список")
     void searchItems_EmptyText_ReturnsEmptyList() {
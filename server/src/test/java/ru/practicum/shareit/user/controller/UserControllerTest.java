@@ -6,14 +6,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -84,18 +88,67 @@ class UserControllerTest {
     }
 
     @Test
-    @DisplayName("Тест получения всех пользователей")
-    void getAllUsers_shouldReturnListOfUsers() throws Exception {
-        Mockito.when(userService.getAllUsers())
-                .thenReturn(List.of(userDto));
-
-        mockMvc.perform(get("/users"))
+    @DisplayName("Тест получения страницы пользователей")
+    void getUsers_shouldReturnPageWithNextCursor() throws Exception {
+        Mockito.when(userService.getUsers(5L, 1))
+                .thenReturn(new UserPageDto(List.of(userDto), 1L));
+
+        mockMvc.perform(get("/users")
+                        .param("afterId", "5")
+                        .param("size", "1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
                 .andExpect(jsonPath("$[0].id").value(userDto.getId()))
                 .andExpect(jsonPath("$[0].name").value(userDto.getName()))
                 .andExpect(jsonPath("$[0].email").value(userDto.getEmail()));
     }
 
+    @Test
+    @DisplayName("Последняя страница пользователей без курсора")
+    void getUsers_lastPage_shouldNotReturnCursor() throws Exception {
+        Mockito.when(userService.getUsers(null, 100))
+                .thenReturn(new UserPageDto(List.of(userDto), null));
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("Выгрузка пользователей в NDJSON")
+    void exportUsers_shouldStreamNdjson() throws Exception {
+        UserDto second = new UserDto(2L, "Jane Doe", "jane.doe@example.com");
+        Mockito.doAnswer(invocation -> {
+            Consumer<UserDto> sink = invocation.getArgument(1);
+            sink.accept(userDto);
+            sink.accept(second);
+            return null;
+        }).when(userService).exportUsers(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/users/export").header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(userDto, objectMapper.readValue(lines[0], UserDto.class));
+        assertEquals(second, objectMapper.readValue(lines[1], UserDto.class));
+    }
+
+    @Test
+    @DisplayName("Выгрузка пользователей без заголовка X-Sharer-User-Id отклоняется")
+    void exportUsers_withoutCaller_shouldBeRejected() throws Exception {
+        mockMvc.perform(get("/users/export"))
+                .andExpect(status().is4xxClientError());
+
+        Mockito.verifyNoInteractions(userService);
+    }
+
     @Test
     @DisplayName("Тест удаления пользователя")
     void deleteUser_shouldCallService() throws Exception {
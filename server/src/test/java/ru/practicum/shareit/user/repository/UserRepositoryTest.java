@@ -4,9 +4,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class UserRepositoryTest {
@@ -15,24 +22,19 @@ class UserRepositoryTest {
     private UserRepository userRepository;
 
     @Test
-    @DisplayName("Проверка существования пользователя по email (игнорируя регистр)")
-    void existsByEmailIgnoreCase_shouldReturnTrueWhenEmailExists() {
+    @DisplayName("Email уникален без учёта регистра")
+    void saveAndFlush_shouldRejectEmailDifferingOnlyInCase() {
         User user = new User();
         user.setName("User1");
         user.setEmail("user1@example.com");
-        userRepository.save(user);
-
-        boolean exists = userRepository.existsByEmailIgnoreCase("USER1@example.com");
+        userRepository.saveAndFlush(user);
 
-        assertThat(exists).isTrue();
-    }
-
-    @Test
-    @DisplayName("Проверка существования пользователя по email (игнорируя регистр), когда email не существует")
-    void existsByEmailIgnoreCase_shouldReturnFalseWhenEmailDoesNotExist() {
-        boolean exists = userRepository.existsByEmailIgnoreCase("nonexistent@example.com");
+        User duplicate = new User();
+        duplicate.setName("User2");
+        duplicate.setEmail("USER1@Example.com");
 
-        assertThat(exists).isFalse();
+        assertThatThrownBy(() -> userRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
     }
 
     @Test
@@ -49,4 +51,51 @@ class UserRepositoryTest {
         assertThat(foundUser.getName()).isEqualTo(user.getName());
         assertThat(foundUser.getEmail()).isEqualTo(user.getEmail());
     }
+
+    @Test
+    @DisplayName("Идентификаторы выдаются последовательно из одного блока последовательности")
+    void saveAll_shouldAssignConsecutiveIdsFromPooledSequence() {
+        User first = new User();
+        first.setName("First");
+        first.setEmail("first@example.com");
+        User second = new User();
+        second.setName("Second");
+        second.setEmail("second@example.com");
+        User third = new User();
+        third.setName("Third");
+        third.setEmail("third@example.com");
+
+        List<User> saved = userRepository.saveAll(List.of(first, second, third));
+        userRepository.flush();
+
+        assertThat(saved.get(1).getId()).isEqualTo(saved.get(0).getId() + 1);
+        assertThat(saved.get(2).getId()).isEqualTo(saved.get(1).getId() + 1);
+    }
+
+    @Test
+    @DisplayName("Страница пользователей начинается после afterId и упорядочена по id")
+    void findByIdGreaterThan_shouldReturnKeysetPage() {
+        List<User> saved = userRepository.saveAll(List.of(user("a"), user("b"), user("c")));
+
+        List<User> page = userRepository.findByIdGreaterThanOrderByIdAsc(saved.get(0).getId(), Limit.of(1));
+
+        assertThat(page).extracting(User::getId).containsExactly(saved.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Выгрузка читает всех пользователей в порядке id")
+    void streamAllForExport_shouldReturnAllUsersInIdOrder() {
+        userRepository.saveAll(List.of(user("a"), user("b")));
+
+        try (Stream<UserDto> users = userRepository.streamAllForExport()) {
+            assertThat(users.map(UserDto::getName).toList()).containsExactly("a", "b");
+        }
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        return user;
+    }
 }
@@ -6,19 +6,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +37,12 @@ class UserServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private UserMapper userMapper;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -55,27 +71,38 @@ class UserServiceImplTest {
         User savedUser = createTestUser(1L);
         UserDto expectedDto = createTestUserDto(1L);
 
-        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(false);
         when(userMapper.toUser(any(UserDto.class))).thenReturn(userToSave);
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(userMapper.toUserDto(any(User.class))).thenReturn(expectedDto);
 
         UserDto result = userService.createUser(inputDto);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(userRepository).existsByEmailIgnoreCase(inputDto.getEmail());
-        verify(userRepository).save(userToSave);
+        verify(userRepository).saveAndFlush(userToSave);
     }
 
     @Test
     @DisplayName("Создание пользователя с уже существующим email должно вызвать ConflictException")
     void createUser_WithExistingEmail_ShouldThrowConflictException() {
         UserDto inputDto = createTestUserDto(null);
-        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(true);
+        when(userMapper.toUser(any(UserDto.class))).thenReturn(createTestUser(null));
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("ux_users_email_lower"));
 
         assertThrows(ConflictException.class, () -> userService.createUser(inputDto));
-        verify(userRepository, never()).save(any());
+        verify(userMapper, never()).toUserDto(any());
+    }
+
+    @Test
+    @DisplayName("Нарушение другого ограничения при создании пользователя пробрасывается без изменений")
+    void createUser_OtherIntegrityViolation_ShouldRethrow() {
+        UserDto inputDto = createTestUserDto(null);
+        when(userMapper.toUser(any(UserDto.class))).thenReturn(createTestUser(null));
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"NAME\""));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(inputDto));
     }
 
     @Test
@@ -88,15 +115,14 @@ class UserServiceImplTest {
         updateDto.setEmail("new@mail.com");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(existingUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(existingUser);
         when(userMapper.toUserDto(any(User.class))).thenReturn(updateDto);
 
         UserDto result = userService.updateUser(userId, updateDto);
 
         assertEquals("Updated Name", result.getName());
         assertEquals("new@mail.com", result.getEmail());
-        verify(userRepository).save(existingUser);
+        verify(userRepository).saveAndFlush(existingUser);
     }
 
     @Test
@@ -108,10 +134,11 @@ class UserServiceImplTest {
         updateDto.setEmail("existing@mail.com");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("ux_users_email_lower"));
 
         assertThrows(ConflictException.class, () -> userService.updateUser(userId, updateDto));
-        verify(userRepository, never()).save(any());
+        verify(userMapper, never()).toUserDto(any());
     }
 
     @Test
@@ -129,7 +156,7 @@ class UserServiceImplTest {
         UserDto result = userService.updateUser(userId, updateDto);
 
         assertNotNull(result);
-        verify(userRepository, never()).existsByEmailIgnoreCase(anyString());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -158,23 +185,56 @@ class UserServiceImplTest {
     }
 
     @Test
-    @DisplayName("Получение всех пользователей должно вернуть список пользователей")
-    void getAllUsers_ShouldReturnListOfUsers() {
-        User user1 = createTestUser(1L);
-        User user2 = createTestUser(2L);
-        List<User> users = List.of(user1, user2);
+    @DisplayName("Страница пользователей после afterId должна вернуть курсор следующей страницы")
+    void getUsers_ShouldReturnPageWithNextAfterId() {
+        List<User> users = List.of(createTestUser(3L), createTestUser(4L), createTestUser(5L));
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Limit.class))).thenReturn(users);
         when(userMapper.toUserDto(any(User.class)))
                 .thenAnswer(invocation -> {
                     User u = invocation.getArgument(0);
                     return createTestUserDto(u.getId());
                 });
 
-        List<UserDto> result = userService.getAllUsers();
+        UserPageDto result = userService.getUsers(2L, 2);
+
+        assertEquals(2, result.getUsers().size());
+        assertEquals(4L, result.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("Последняя страница пользователей не содержит курсора")
+    void getUsers_LastPage_ShouldNotReturnNextAfterId() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(createTestUser(1L)));
+        when(userMapper.toUserDto(any(User.class))).thenReturn(createTestUserDto(1L));
+
+        UserPageDto result = userService.getUsers(null, 10);
+
+        assertEquals(1, result.getUsers().size());
+        assertNull(result.getNextAfterId());
+    }
 
-        assertEquals(2, result.size());
-        verify(userRepository).findAll();
+    @Test
+    @DisplayName("Неположительный размер страницы пользователей должен вызвать ValidationException")
+    void getUsers_NonPositiveSize_ShouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> userService.getUsers(null, 0));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Выгрузка передаёт всех пользователей и закрывает поток")
+    void exportUsers_ShouldPassEveryUserAndCloseStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<UserDto> users = Stream.of(createTestUserDto(1L), createTestUserDto(2L))
+                .onClose(() -> closed.set(true));
+        when(userRepository.streamAllForExport()).thenReturn(users);
+        List<UserDto> exported = new ArrayList<>();
+
+        userService.exportUsers(1L, exported::add);
+
+        assertEquals(2, exported.size());
+        assertTrue(closed.get());
     }
 
     @Test
@@ -182,10 +242,14 @@ class UserServiceImplTest {
     void deleteUser_ExistingId_ShouldDeleteUser() {
         Long userId = 1L;
         when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRepository.findIdsByOwnerId(userId)).thenReturn(List.of(10L, 11L));
+        when(bookingRepository.findItemIdsByBookerId(userId)).thenReturn(List.of(11L, 12L));
 
         userService.deleteUser(userId);
 
         verify(userRepository).deleteById(userId);
+        // owned items and items the user booked lose bookings through the cascade
+        verify(bookingIntervalIndex).evictAll(Set.of(10L, 11L, 12L));
     }
 
     @Test
@@ -196,5 +260,6 @@ class UserServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> userService.deleteUser(userId));
         verify(userRepository, never()).deleteById(any());
+        verifyNoInteractions(bookingIntervalIndex);
     }
 }